@@ -0,0 +1,52 @@
+package com.tuuzed.androidx.datepicker.benchmark;
+
+import com.tuuzed.androidx.datepicker.internal.CalendarMath;
+import com.tuuzed.androidx.datepicker.internal.Utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Calendar;
+
+/**
+ * 年月变化时计算当月天数的路径
+ */
+@State(Scope.Thread)
+public class CalendarBenchmark {
+
+    private int year = 1970;
+    private int month = 1;
+
+    private void next() {
+        if (++month > 12) {
+            month = 1;
+            year = year == 2100 ? 1970 : year + 1;
+        }
+    }
+
+    @Benchmark
+    public int getLastDayByYearMonth() {
+        next();
+        return Utils.getLastDayByYearMonth(year, month);
+    }
+
+    @Benchmark
+    public long toEpochDay() {
+        next();
+        return CalendarMath.toEpochDay(year, month, 1);
+    }
+
+    /**
+     * 改用 CalendarMath 之前的实现，作为对照
+     */
+    @Benchmark
+    public int getLastDayByYearMonth_calendar() {
+        next();
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(Calendar.YEAR, year);
+        calendar.set(Calendar.MONTH, month - 1);
+        calendar.set(Calendar.DATE, 1);
+        return calendar.getActualMaximum(Calendar.DATE);
+    }
+}
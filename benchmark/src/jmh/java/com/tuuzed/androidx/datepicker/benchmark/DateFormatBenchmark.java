@@ -0,0 +1,52 @@
+package com.tuuzed.androidx.datepicker.benchmark;
+
+import com.tuuzed.androidx.datepicker.DatePickerType;
+import com.tuuzed.androidx.datepicker.internal.DateFormats;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+
+/**
+ * DatePicker.getDateFormat 及格式化的路径。
+ * <p>
+ * DatePicker 是 View 的子类，在普通 JVM 上无法初始化，因此直接测试它委托的 DateFormats。
+ */
+@State(Scope.Thread)
+public class DateFormatBenchmark {
+
+    private final StringBuilder out = new StringBuilder();
+    private final long millis = 1792310400000L;
+
+    @Benchmark
+    public DateFormat getDateFormat() {
+        return DateFormats.newFormat(DatePickerType.TYPE_YMDHM, Locale.getDefault());
+    }
+
+    /**
+     * 不复制缓存、每次解析格式，作为对照
+     */
+    @Benchmark
+    public DateFormat getDateFormat_new() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
+    }
+
+    @Benchmark
+    public StringBuilder formatMillis() {
+        out.setLength(0);
+        DateFormats.format(DatePickerType.TYPE_YMDHM, Locale.getDefault(), millis, out);
+        return out;
+    }
+
+    @Benchmark
+    public StringBuilder formatFields() throws IOException {
+        out.setLength(0);
+        DateFormats.format(DatePickerType.TYPE_YMDHM, 2026, 10, 18, 15, 30, out);
+        return out;
+    }
+}
@@ -0,0 +1,53 @@
+package com.tuuzed.androidx.datepicker.benchmark;
+
+import com.tuuzed.androidx.datepicker.internal.NumericWheelAdapter;
+import com.tuuzed.androidx.datepicker.internal.Utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * NumericWheelAdapter 在绘制每一行时被调用的路径
+ */
+@State(Scope.Thread)
+public class NumericWheelAdapterBenchmark {
+
+    @Param({"60", "100000"})
+    public int count;
+
+    @Param({"", "%02d"})
+    public String format;
+
+    private NumericWheelAdapter adapter;
+    private final char[] digits = new char[Utils.MAX_INT_CHARS];
+    private int index;
+
+    @Setup
+    public void setup() {
+        adapter = new NumericWheelAdapter(0, count - 1, format.isEmpty() ? null : format);
+    }
+
+    private int nextIndex() {
+        index = index + 1 == count ? 0 : index + 1;
+        return index;
+    }
+
+    @Benchmark
+    public String getItem() {
+        return adapter.getItem(nextIndex());
+    }
+
+    @Benchmark
+    public int getMaximumLength() {
+        return adapter.getMaximumLength();
+    }
+
+    @Benchmark
+    public int formatValue() {
+        int i = nextIndex();
+        return Utils.formatInt(adapter.getValue(i), adapter.getMinimumWidth(), digits);
+    }
+}
@@ -0,0 +1,32 @@
+package com.tuuzed.androidx.datepicker.benchmark;
+
+import com.tuuzed.androidx.datepicker.internal.Utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * WheelView 将行位置转换为适配器 index 的循环取模路径
+ */
+@State(Scope.Thread)
+public class WheelIndexBenchmark {
+
+    @Param({"12", "1000000"})
+    public int count;
+
+    /**
+     * 行位置离 0 的距离，循环滚轮向上滚动时为负数
+     */
+    @Param({"-3", "-100000000"})
+    public int position;
+
+    private int row;
+
+    @Benchmark
+    public int getItemIndex() {
+        row = row == 7 ? 0 : row + 1;
+        return Utils.getItemIndex(position + row, count, true);
+    }
+}
@@ -0,0 +1,107 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.runner.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+/**
+ * 新建一个 DatePicker 到画出第一帧的耗时：解析原来的布局文件 vs 以代码创建。
+ * <p>
+ * 布局文件一项只包含 inflate、findViewById 以及 measure/layout/draw，
+ * 代码创建一项还包含适配器、监听器和 setDate，因此对代码创建是偏保守的比较。
+ * 结果以中位数输出到 logcat 和 instrumentation status（单位 us）。
+ */
+@RunWith(AndroidJUnit4.class)
+public class DatePickerStartupBenchmark {
+
+    private static final String TAG = "DatePickerStartup";
+    private static final int WARMUP = 10;
+    private static final int RUNS = 50;
+    private static final int WIDTH = 1080;
+
+    private interface Factory {
+        View create(Context context);
+    }
+
+    @Test
+    public void timeToFirstFrame() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+                long inflated = measure(context, new Factory() {
+                    @Override
+                    public View create(Context context) {
+                        FrameLayout root = new FrameLayout(context);
+                        LayoutInflater.from(context).inflate(R.layout.widget_datepicker, root, true);
+                        // 原来的 init() 中的 10 次查找
+                        int[] ids = {
+                                R.id.wv_year,
+                                R.id.wv_month,
+                                R.id.wv_day,
+                                R.id.wv_hour,
+                                R.id.wv_minute,
+                                R.id.tv_year,
+                                R.id.tv_month,
+                                R.id.tv_day,
+                                R.id.tv_hour,
+                                R.id.tv_minute,
+                        };
+                        for (int id : ids) {
+                            root.findViewById(id);
+                        }
+                        return root;
+                    }
+                });
+                long codeBuilt = measure(context, new Factory() {
+                    @Override
+                    public View create(Context context) {
+                        return new DatePicker(context);
+                    }
+                });
+                Log.i(TAG, "inflated: " + inflated + "us, code built: " + codeBuilt + "us");
+                Bundle results = new Bundle();
+                results.putLong("inflated_us", inflated);
+                results.putLong("code_built_us", codeBuilt);
+                InstrumentationRegistry.getInstrumentation().sendStatus(0, results);
+            }
+        });
+    }
+
+    /**
+     * @return 创建、measure、layout 并画出第一帧耗时的中位数，单位us
+     */
+    private static long measure(Context context, Factory factory) {
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, WIDTH, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        long[] times = new long[RUNS];
+        for (int i = -WARMUP; i < RUNS; i++) {
+            long start = System.nanoTime();
+            View view = factory.create(context);
+            view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                    View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            view.draw(canvas);
+            long time = (System.nanoTime() - start) / 1000;
+            if (i >= 0) {
+                times[i] = time;
+            }
+        }
+        bitmap.recycle();
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+}
@@ -0,0 +1,842 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.text.TextPaint;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.tuuzed.androidx.datepicker.internal.CalendarMath;
+import com.tuuzed.androidx.datepicker.internal.DateFormats;
+import com.tuuzed.androidx.datepicker.internal.NumericWheelAdapter;
+import com.tuuzed.androidx.datepicker.internal.Traces;
+import com.tuuzed.androidx.datepicker.internal.Utils;
+import com.tuuzed.androidx.datepicker.internal.WheelRows;
+import com.tuuzed.androidx.datepicker.internal.WheelScroller;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * 在一个 View 中绘制全部列和标签的日期选择器。
+ * 外观和回调与 {@link DatePicker} 一致，但只有一次 measure 和一次 onDraw，各列的滚动与 {@link DatePicker}
+ * 的滚轮共用 {@link WheelScroller}，适合放在对话框或 RecyclerView 的 item 中。
+ * <p>
+ * 支持年的范围、小时的范围和分钟的间隔；不支持 {@link DatePickerType#TYPE_DATE_HM}、最小/最大日期、
+ * 批量更新、bind/unbind、运行时计数和 WheelStyle，需要时使用 {@link DatePicker}
+ */
+public class CompactDatePicker extends View {
+    /**
+     * 附加的item的高度
+     */
+    private static final int ADDITIONAL_ITEM_HEIGHT = 60;
+    /**
+     * 每列可见item的数目
+     */
+    private static final int VISIBLE_COUNT = 3;
+    /**
+     * 左右padding值，单位dp
+     */
+    private static final int HORIZONTAL_PADDING = 12;
+
+    // 列
+    private static final int COLUMN_YEAR = 0;
+    private static final int COLUMN_MONTH = 1;
+    private static final int COLUMN_DAY = 2;
+    private static final int COLUMN_HOUR = 3;
+    private static final int COLUMN_MINUTE = 4;
+    private static final int COLUMN_COUNT = 5;
+    /**
+     * 各列宽度的权重，与 DatePicker 相同
+     */
+    private static final int[] COLUMN_WEIGHTS = {10, 7, 8, 8, 8};
+
+    private final NumericWheelAdapter[] mAdapters = new NumericWheelAdapter[COLUMN_COUNT];
+    private final WheelRows[] mRows = new WheelRows[COLUMN_COUNT];
+    /**
+     * 各列当前item位置
+     */
+    private final int[] mPositions = new int[COLUMN_COUNT];
+    /**
+     * 各列的拖动、惯性滚动和对齐
+     */
+    private final WheelScroller[] mScrollers = new WheelScroller[COLUMN_COUNT];
+    private final String[] mLabels = new String[COLUMN_COUNT];
+    private final int[] mLabelWidths = new int[COLUMN_COUNT];
+    private final int[] mColumnLefts = new int[COLUMN_COUNT];
+    private final int[] mColumnWidths = new int[COLUMN_COUNT];
+    /**
+     * 当前类型下可见的列，按位表示
+     */
+    private int mColumnMask;
+
+    private final TextPaint mItemsPaint;
+    private final TextPaint mValuePaint;
+    private final TextPaint mLabelPaint;
+    private final Paint.FontMetricsInt mFontMetrics = new Paint.FontMetricsInt();
+    private final Paint.FontMetricsInt mLabelFontMetrics = new Paint.FontMetricsInt();
+    private final int mTextSize;
+    private final int mItemHeight;
+    private final int mHorizontalPadding;
+
+    /**
+     * 接收当前手势的列，-1表示没有
+     */
+    private int mTouchColumn = -1;
+
+    @Nullable
+    private DatePicker.OnDateChangedListener mOnDateChangedListener;
+    @Nullable
+    private DatePicker.OnDateFieldsChangedListener mOnDateFieldsChangedListener;
+    private final Calendar mCalendar;
+    /**
+     * 是否有尚未回调的日期变化
+     */
+    private boolean mDateChangePending;
+    /**
+     * 正在以代码设置全部字段或修正日，此时各列的变化不回调
+     */
+    private boolean mSettingDate;
+    private final Runnable mDispatchDateChanged = new Runnable() {
+        @Override
+        public void run() {
+            dispatchDateChanged();
+        }
+    };
+
+    // 自定义属性
+    private int mMinYear;
+    private int mMaxYear;
+    private int mDatePickerType;
+    private int mDateChangeDelivery;
+    private int mTextColor = Color.BLACK;
+    private int mMinuteInterval = 1;
+    private int mMinHour = 0;
+    private int mMaxHour = 23;
+
+    public CompactDatePicker(Context context) {
+        this(context, null);
+    }
+
+    public CompactDatePicker(Context context, @Nullable AttributeSet attrs) {
+        this(context, attrs, 0);
+    }
+
+    public CompactDatePicker(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
+        super(context, attrs, defStyleAttr);
+        mCalendar = Calendar.getInstance();
+
+        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DatePicker);
+        mMinYear = a.getInteger(R.styleable.DatePicker_dp_minYear, 1970);
+        mMaxYear = a.getInteger(R.styleable.DatePicker_dp_maxYear, 2100);
+        mDatePickerType = a.getInteger(R.styleable.DatePicker_dp_datePickerType, DatePickerType.TYPE_YMDHM);
+        mTextColor = a.getColor(R.styleable.DatePicker_dp_textColor, Color.BLACK);
+        mDateChangeDelivery = a.getInteger(R.styleable.DatePicker_dp_dateChangeDelivery, DateChangeDelivery.DELIVERY_EVERY_STEP);
+        mMinuteInterval = a.getInteger(R.styleable.DatePicker_dp_minuteInterval, mMinuteInterval);
+        mMinHour = a.getInteger(R.styleable.DatePicker_dp_minHour, mMinHour);
+        mMaxHour = a.getInteger(R.styleable.DatePicker_dp_maxHour, mMaxHour);
+        a.recycle();
+        DatePicker.checkMinuteInterval(mMinuteInterval);
+        DatePicker.checkHourRange(mMinHour, mMaxHour);
+
+        Resources res = context.getResources();
+        mTextSize = (int) res.getDimension(R.dimen.wheel_text_size);
+        mHorizontalPadding = Utils.dip2px(context, HORIZONTAL_PADDING);
+        mItemsPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mItemsPaint.setTextSize(mTextSize);
+        mValuePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+        mValuePaint.setTextSize(mTextSize);
+        mValuePaint.setShadowLayer(0.1f, 0, 0.1f, 0xFFC0C0C0);
+        mLabelPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        mLabelPaint.setTextSize(res.getDimension(R.dimen.label_text_size));
+        mItemsPaint.getFontMetricsInt(mFontMetrics);
+        mLabelPaint.getFontMetricsInt(mLabelFontMetrics);
+        mItemHeight = mFontMetrics.descent - mFontMetrics.ascent + ADDITIONAL_ITEM_HEIGHT;
+
+        mLabels[COLUMN_YEAR] = res.getString(R.string.year);
+        mLabels[COLUMN_MONTH] = res.getString(R.string.month);
+        mLabels[COLUMN_DAY] = res.getString(R.string.day);
+        mLabels[COLUMN_HOUR] = res.getString(R.string.hour);
+        mLabels[COLUMN_MINUTE] = res.getString(R.string.minute);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            mLabelWidths[column] = (int) Math.ceil(mLabelPaint.measureText(mLabels[column]));
+            mRows[column] = new WheelRows();
+            mRows[column].setCyclic(isCyclic(column));
+            mScrollers[column] = new WheelScroller(this, new ColumnHost(column));
+        }
+
+        setColumnAdapter(COLUMN_YEAR, new NumericWheelAdapter(mMinYear, mMaxYear));
+        setColumnAdapter(COLUMN_MONTH, new NumericWheelAdapter(1, 12));
+        setColumnAdapter(COLUMN_DAY, new NumericWheelAdapter(1, Utils.getLastDayByYearMonth(mMinYear, 1)));
+        setColumnAdapter(COLUMN_HOUR, new NumericWheelAdapter(mMinHour, mMaxHour));
+        setColumnAdapter(COLUMN_MINUTE, new NumericWheelAdapter(0, 59, mMinuteInterval, null));
+
+        setTextColor(mTextColor);
+        // 设置日期
+        setDate(new Date(), false);
+        setDatePickerType(mDatePickerType);
+    }
+
+    private void setColumnAdapter(int column, NumericWheelAdapter adapter) {
+        mAdapters[column] = adapter;
+        mRows[column].setAdapter(adapter);
+    }
+
+    /**
+     * 年不循环
+     */
+    private static boolean isCyclic(int column) {
+        return column != COLUMN_YEAR;
+    }
+
+    public void setTextColor(@ColorInt int color) {
+        mTextColor = color;
+        int alphaColor = Utils.getAlphaColor(color, 0x50);
+        mItemsPaint.setColor(alphaColor);
+        mLabelPaint.setColor(alphaColor);
+        mValuePaint.setColor(color);
+        invalidate();
+    }
+
+    public void setMaxYear(int maxYear) {
+        mMaxYear = maxYear;
+        onYearRangeChanged();
+    }
+
+    public void setMinYear(int minYear) {
+        mMinYear = minYear;
+        onYearRangeChanged();
+    }
+
+    /**
+     * 年的范围变化后保持选中的年，超出范围时取最近的一年
+     */
+    private void onYearRangeChanged() {
+        int year = getYear();
+        mAdapters[COLUMN_YEAR].setRange(mMinYear, mMaxYear);
+        mRows[COLUMN_YEAR].invalidate();
+        mPositions[COLUMN_YEAR] = Math.max(0, Math.min(year, mMaxYear) - mMinYear);
+        if (getYear() != year) {
+            onColumnChanged(COLUMN_YEAR);
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 设置分钟的间隔，如 15 时分钟只有 0、15、30、45 四项。当前的分钟向下取到间隔的整数倍
+     *
+     * @param interval 1 到 60 之间的分钟数
+     */
+    public void setMinuteInterval(int interval) {
+        DatePicker.checkMinuteInterval(interval);
+        mMinuteInterval = interval;
+        onTimeRangeChanged();
+    }
+
+    public int getMinuteInterval() {
+        return mMinuteInterval;
+    }
+
+    /**
+     * 设置小时的范围，如 9 到 17 只显示工作时间。当前的小时超出范围时取最近的一端
+     *
+     * @param minHour 最小的小时，0 到 23
+     * @param maxHour 最大的小时，minHour 到 23
+     */
+    public void setHourRange(int minHour, int maxHour) {
+        DatePicker.checkHourRange(minHour, maxHour);
+        mMinHour = minHour;
+        mMaxHour = maxHour;
+        onTimeRangeChanged();
+    }
+
+    public int getMinHour() {
+        return mMinHour;
+    }
+
+    public int getMaxHour() {
+        return mMaxHour;
+    }
+
+    /**
+     * 时、分的范围变化后保持选中的时间，超出范围时取最近的一项
+     */
+    private void onTimeRangeChanged() {
+        int time = getPackedTime();
+        int hour = getHour();
+        int minute = getMinute();
+        mScrollers[COLUMN_HOUR].stopScrolling();
+        mScrollers[COLUMN_MINUTE].stopScrolling();
+        mAdapters[COLUMN_HOUR].setRange(mMinHour, mMaxHour);
+        mAdapters[COLUMN_MINUTE].setRange(0, 59, mMinuteInterval);
+        mRows[COLUMN_HOUR].invalidate();
+        mRows[COLUMN_MINUTE].invalidate();
+        mPositions[COLUMN_HOUR] = getHourPosition(hour);
+        mPositions[COLUMN_MINUTE] = minute / mMinuteInterval;
+        if (getPackedTime() != time) {
+            onDateFieldChanged();
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    /**
+     * 超出小时范围时取最近的一端
+     */
+    private int getHourPosition(int hour) {
+        return Math.max(mMinHour, Math.min(hour, mMaxHour)) - mMinHour;
+    }
+
+    /**
+     * 设置类型
+     *
+     * @param type 除 {@link DatePickerType#TYPE_DATE_HM} 外的类型
+     * @throws IllegalArgumentException 没有单独的日期列，不支持 {@link DatePickerType#TYPE_DATE_HM}
+     */
+    public void setDatePickerType(@DatePickerType int type) {
+        switch (type) {
+            case DatePickerType.TYPE_YMDHM:
+                mColumnMask = columns(COLUMN_YEAR, COLUMN_MINUTE);
+                break;
+            case DatePickerType.TYPE_YMDH:
+                mColumnMask = columns(COLUMN_YEAR, COLUMN_HOUR);
+                break;
+            case DatePickerType.TYPE_YMD:
+                mColumnMask = columns(COLUMN_YEAR, COLUMN_DAY);
+                break;
+            case DatePickerType.TYPE_YM:
+                mColumnMask = columns(COLUMN_YEAR, COLUMN_MONTH);
+                break;
+            case DatePickerType.TYPE_Y:
+                mColumnMask = columns(COLUMN_YEAR, COLUMN_YEAR);
+                break;
+            case DatePickerType.TYPE_HM:
+                mColumnMask = columns(COLUMN_HOUR, COLUMN_MINUTE);
+                break;
+            default:
+                throw new IllegalArgumentException("CompactDatePicker does not support date picker type " + type);
+        }
+        mDatePickerType = type;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (!isColumnVisible(column)) {
+                mScrollers[column].stopScrolling();
+            }
+        }
+        requestLayout();
+        invalidate();
+    }
+
+    @DatePickerType
+    public int getDatePickerType() {
+        return mDatePickerType;
+    }
+
+    /**
+     * @return first 到 last 之间（包括两端）的列的位掩码
+     */
+    private static int columns(int first, int last) {
+        return (1 << (last + 1)) - (1 << first);
+    }
+
+    private boolean isColumnVisible(int column) {
+        return (mColumnMask & (1 << column)) != 0;
+    }
+
+    public void setDate(@NonNull Date date) {
+        setDate(date, true);
+    }
+
+    /**
+     * 一次设置全部字段，日的范围只重新计算一次
+     *
+     * @param date   日期
+     * @param notify 日期变化时是否回调监听器，最多回调一次
+     */
+    public void setDate(@NonNull Date date, boolean notify) {
+        setEpochMillis(date.getTime(), notify);
+    }
+
+    @NonNull
+    public Date getDate() {
+        return new Date(getEpochMillis());
+    }
+
+    /**
+     * 选中的日期，精确到分钟
+     *
+     * @return epoch millis
+     */
+    public long getEpochMillis() {
+        mCalendar.set(getYear(), getMonth() - 1, getDay(), getHour(), getMinute(), 0);
+        mCalendar.set(Calendar.MILLISECOND, 0);
+        return mCalendar.getTimeInMillis();
+    }
+
+    public void setEpochMillis(long epochMillis) {
+        setEpochMillis(epochMillis, true);
+    }
+
+    /**
+     * 一次设置全部字段，日的范围只重新计算一次
+     *
+     * @param epochMillis 日期
+     * @param notify      日期变化时是否回调监听器，最多回调一次
+     */
+    public void setEpochMillis(long epochMillis, boolean notify) {
+        mCalendar.setTimeInMillis(epochMillis);
+        setDate(mCalendar.get(Calendar.YEAR),
+                mCalendar.get(Calendar.MONTH) + 1,
+                mCalendar.get(Calendar.DATE),
+                mCalendar.get(Calendar.HOUR_OF_DAY),
+                mCalendar.get(Calendar.MINUTE),
+                notify
+        );
+    }
+
+    /**
+     * 打包的年月日
+     *
+     * @return year * 10000 + month * 100 + day，如 20261018
+     */
+    public int getPackedDate() {
+        return CalendarMath.pack(getYear(), getMonth(), getDay());
+    }
+
+    /**
+     * 设置打包的年月日，时分不变
+     *
+     * @param packedDate year * 10000 + month * 100 + day
+     */
+    public void setPackedDate(int packedDate) {
+        setDate(CalendarMath.packedYear(packedDate),
+                CalendarMath.packedMonth(packedDate),
+                CalendarMath.packedDay(packedDate),
+                getHour(),
+                getMinute(),
+                true
+        );
+    }
+
+    /**
+     * 打包的时分
+     *
+     * @return hour * 100 + minute，如 1530
+     */
+    public int getPackedTime() {
+        return getHour() * 100 + getMinute();
+    }
+
+    /**
+     * 设置打包的时分，年月日不变
+     *
+     * @param packedTime hour * 100 + minute
+     */
+    public void setPackedTime(int packedTime) {
+        setDate(getYear(), getMonth(), getDay(), packedTime / 100, packedTime % 100, true);
+    }
+
+    /**
+     * 以当前类型的格式将选中的日期追加到 out，数字固定为 ASCII
+     */
+    public void formatDate(@NonNull Appendable out) {
+        try {
+            DateFormats.format(mDatePickerType, getYear(), getMonth(), getDay(), getHour(), getMinute(), out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public void setOnDateChangedListener(DatePicker.OnDateChangedListener listener) {
+        mOnDateChangedListener = listener;
+    }
+
+    /**
+     * 设置以基本类型回调的监听器，回调时不创建 Date 对象
+     */
+    public void setOnDateFieldsChangedListener(DatePicker.OnDateFieldsChangedListener listener) {
+        mOnDateFieldsChangedListener = listener;
+    }
+
+    /**
+     * 设置 {@link DatePicker.OnDateChangedListener} 的回调时机
+     */
+    public void setDateChangeDelivery(@DateChangeDelivery int delivery) {
+        mDateChangeDelivery = delivery;
+        if (mDateChangePending) {
+            dispatchDateChanged();
+        }
+    }
+
+    @DateChangeDelivery
+    public int getDateChangeDelivery() {
+        return mDateChangeDelivery;
+    }
+
+    /**
+     * 是否正在滚动，包括拖动、惯性滚动和对齐
+     */
+    public boolean isScrolling() {
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (mScrollers[column].isScrolling()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 日期字段变化，按回调时机通知监听器
+     */
+    private void onDateFieldChanged() {
+        if (mSettingDate) {
+            return;
+        }
+        switch (mDateChangeDelivery) {
+            case DateChangeDelivery.DELIVERY_PER_FRAME:
+                if (!mDateChangePending) {
+                    mDateChangePending = true;
+                    Utils.postOnAnimation(this, mDispatchDateChanged);
+                }
+                break;
+            case DateChangeDelivery.DELIVERY_ON_SETTLE:
+                mDateChangePending = true;
+                if (!isScrolling()) {
+                    dispatchDateChanged();
+                }
+                break;
+            default:
+                dispatchDateChanged();
+                break;
+        }
+    }
+
+    private void dispatchDateChanged() {
+        // 只有等待中的变化可能已安排了回调
+        if (mDateChangePending) {
+            mDateChangePending = false;
+            removeCallbacks(mDispatchDateChanged);
+        }
+        if (mOnDateFieldsChangedListener != null) {
+            mOnDateFieldsChangedListener.onDateChanged(getYear(), getMonth(), getDay(), getHour(), getMinute());
+        }
+        if (mOnDateChangedListener != null) {
+            mOnDateChangedListener.onDateChanged(getDate());
+        }
+    }
+
+    private int getValue(int column) {
+        return mAdapters[column].getValue(mPositions[column]);
+    }
+
+    private int getYear() {
+        return getValue(COLUMN_YEAR);
+    }
+
+    private int getMonth() {
+        return getValue(COLUMN_MONTH);
+    }
+
+    private int getDay() {
+        return getValue(COLUMN_DAY);
+    }
+
+    private int getHour() {
+        return getValue(COLUMN_HOUR);
+    }
+
+    private int getMinute() {
+        return getValue(COLUMN_MINUTE);
+    }
+
+    /**
+     * 设置全部字段，各列变化时不回调，全部设置完后日期有变化才回调一次
+     */
+    private void setDate(int year, int month, int day, int hour, int minute, boolean notify) {
+        long oldKey = getPackedDate() * 10000L + getPackedTime();
+        mSettingDate = true;
+        setPosition(COLUMN_YEAR, year - mMinYear);
+        setPosition(COLUMN_MONTH, month - 1);
+        setPosition(COLUMN_DAY, day - 1);
+        setPosition(COLUMN_HOUR, getHourPosition(hour));
+        // 分钟向下取到间隔的整数倍
+        setPosition(COLUMN_MINUTE, minute / mMinuteInterval);
+        updateDayRange();
+        mSettingDate = false;
+        if (notify && getPackedDate() * 10000L + getPackedTime() != oldKey) {
+            onDateFieldChanged();
+        }
+    }
+
+    /**
+     * 设置列的当前item w/o 动画，index有误时循环的列回绕，不循环的列不做任何响应
+     *
+     * @param column   列
+     * @param position the item position
+     */
+    private void setPosition(int column, int position) {
+        int count = mAdapters[column].getItemsCount();
+        if (count == 0) {
+            return;
+        }
+        if (position < 0 || position >= count) {
+            if (!isCyclic(column)) {
+                return;
+            }
+            position = Utils.getItemIndex(position, count, true);
+        }
+        if (position != mPositions[column]) {
+            mScrollers[column].resetOffset();
+            mPositions[column] = position;
+            onColumnChanged(column);
+            invalidate();
+        }
+    }
+
+    /**
+     * 列的位置变化时更新对应的字段
+     */
+    private void onColumnChanged(int column) {
+        if (column == COLUMN_YEAR || column == COLUMN_MONTH) {
+            updateDayRange();
+        }
+        onDateFieldChanged();
+    }
+
+    /**
+     * 根据年月更新日的范围，范围不变时不做任何事
+     */
+    private void updateDayRange() {
+        NumericWheelAdapter adapter = mAdapters[COLUMN_DAY];
+        int oldCount = adapter.getItemsCount();
+        adapter.setRange(1, Utils.getLastDayByYearMonth(getYear(), getMonth()));
+        int count = adapter.getItemsCount();
+        if (count != oldCount) {
+            mRows[COLUMN_DAY].refreshChangedRows(mItemsPaint);
+            if (mPositions[COLUMN_DAY] >= count) {
+                // 由改变了年、月的一方回调一次，修正日时不再回调
+                boolean settingDate = mSettingDate;
+                mSettingDate = true;
+                setPosition(COLUMN_DAY, count - 1);
+                mSettingDate = settingDate;
+            }
+            invalidate();
+        }
+    }
+
+    private int getItemOffset() {
+        return mTextSize / 3 - 10;
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        boolean traced = Traces.begin("CompactDatePicker.onMeasure");
+        int widthMode = MeasureSpec.getMode(widthMeasureSpec);
+        int heightMode = MeasureSpec.getMode(heightMeasureSpec);
+        int widthSize = MeasureSpec.getSize(widthMeasureSpec);
+        int heightSize = MeasureSpec.getSize(heightMeasureSpec);
+
+        int width;
+        if (widthMode == MeasureSpec.EXACTLY) {
+            width = widthSize;
+        } else {
+            width = Math.max(getDesiredWidth(), getSuggestedMinimumWidth());
+            if (widthMode == MeasureSpec.AT_MOST) {
+                width = Math.min(width, widthSize);
+            }
+        }
+
+        int height;
+        if (heightMode == MeasureSpec.EXACTLY) {
+            height = heightSize;
+        } else {
+            height = mItemHeight * VISIBLE_COUNT - getItemOffset() * 2 - ADDITIONAL_ITEM_HEIGHT;
+            height = Math.max(height, getSuggestedMinimumHeight());
+            if (heightMode == MeasureSpec.AT_MOST) {
+                height = Math.min(height, heightSize);
+            }
+        }
+
+        setMeasuredDimension(width, height);
+        Traces.end(traced);
+    }
+
+    /**
+     * 可见的列以最长的item并排时所需的宽度
+     */
+    private int getDesiredWidth() {
+        int digitWidth = (int) Math.ceil(mItemsPaint.measureText("0"));
+        int width = getPaddingLeft() + getPaddingRight() + 2 * mHorizontalPadding;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isColumnVisible(column)) {
+                width += mAdapters[column].getMaximumLength() * digitWidth + mLabelWidths[column];
+            }
+        }
+        return width;
+    }
+
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        layoutColumns();
+    }
+
+    /**
+     * 标签按自身宽度摆放，剩余的宽度按权重分给各列
+     */
+    private void layoutColumns() {
+        int left = getPaddingLeft() + mHorizontalPadding;
+        int available = getWidth() - left - getPaddingRight() - mHorizontalPadding;
+        int totalWeight = 0;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isColumnVisible(column)) {
+                available -= mLabelWidths[column];
+                totalWeight += COLUMN_WEIGHTS[column];
+            }
+        }
+        available = Math.max(available, 0);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isColumnVisible(column)) {
+                int width = available * COLUMN_WEIGHTS[column] / totalWeight;
+                mColumnLefts[column] = left;
+                mColumnWidths[column] = width;
+                left += width + mLabelWidths[column];
+            } else {
+                mColumnWidths[column] = 0;
+            }
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        boolean traced = Traces.begin("CompactDatePicker.onDraw");
+
+        canvas.save();
+        // hide a part of top and bottom items
+        canvas.translate(0, -getItemOffset());
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isColumnVisible(column) && mColumnWidths[column] > 0) {
+                drawItems(canvas, column);
+            }
+        }
+        canvas.restore();
+
+        // 标签在整个控件中垂直居中
+        float baseline = (getHeight() - mLabelFontMetrics.ascent - mLabelFontMetrics.descent) / 2f;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isColumnVisible(column)) {
+                canvas.drawText(mLabels[column], mColumnLefts[column] + mColumnWidths[column], baseline, mLabelPaint);
+            }
+        }
+        Traces.end(traced);
+    }
+
+    /**
+     * 逐行画一列的items，该列滚动时当前值也使用item的画笔
+     */
+    private void drawItems(Canvas canvas, int column) {
+        WheelRows rows = mRows[column];
+        rows.update(mPositions[column], VISIBLE_COUNT, mItemsPaint);
+        WheelScroller scroller = mScrollers[column];
+        float top = scroller.getOffset() - mItemHeight - mFontMetrics.ascent;
+        rows.draw(canvas, mColumnLefts[column], mColumnWidths[column], false, top, mItemHeight,
+                mItemsPaint, scroller.isScrolling() ? mItemsPaint : mValuePaint);
+    }
+
+    /**
+     * 找到x所在的列，标签属于其左侧的列
+     *
+     * @return 列，-1表示不在任何列上
+     */
+    private int findColumn(float x) {
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (isColumnVisible(column) && x >= mColumnLefts[column]
+                    && x < mColumnLefts[column] + mColumnWidths[column] + mLabelWidths[column]) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    @SuppressLint("ClickableViewAccessibility")
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        // 整个手势交给按下时所在的列，其他列的滚动不受影响
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN) {
+            mTouchColumn = findColumn(event.getX());
+        }
+        if (mTouchColumn >= 0) {
+            mScrollers[mTouchColumn].onTouchEvent(event);
+        }
+        return true;
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (mScrollers[column].isAnimating()) {
+                mScrollers[column].stopScrolling();
+            }
+        }
+    }
+
+    /**
+     * 一列的item和位置
+     */
+    private final class ColumnHost implements WheelScroller.Host {
+        private final int column;
+
+        ColumnHost(int column) {
+            this.column = column;
+        }
+
+        @Override
+        public int getItemsCount() {
+            return mAdapters[column].getItemsCount();
+        }
+
+        @Override
+        public int getPosition() {
+            return mPositions[column];
+        }
+
+        @Override
+        public boolean isCyclic() {
+            return CompactDatePicker.isCyclic(column);
+        }
+
+        @Override
+        public int getItemHeight() {
+            return mItemHeight;
+        }
+
+        @Override
+        public void setScrolledPosition(int position) {
+            setPosition(column, position);
+        }
+
+        @Override
+        public void onScrollingStarted() {
+        }
+
+        @Override
+        public void onScrollingFinished() {
+            if (mDateChangeDelivery == DateChangeDelivery.DELIVERY_ON_SETTLE && mDateChangePending && !isScrolling()) {
+                dispatchDateChanged();
+            }
+        }
+    }
+}
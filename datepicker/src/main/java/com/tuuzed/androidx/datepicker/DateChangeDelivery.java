@@ -0,0 +1,31 @@
+package com.tuuzed.androidx.datepicker;
+
+
+import androidx.annotation.IntDef;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+/**
+ * {@link DatePicker.OnDateChangedListener} 的回调时机
+ */
+@IntDef({
+        DateChangeDelivery.DELIVERY_EVERY_STEP,
+        DateChangeDelivery.DELIVERY_PER_FRAME,
+        DateChangeDelivery.DELIVERY_ON_SETTLE,
+})
+@Retention(RetentionPolicy.SOURCE)
+public @interface DateChangeDelivery {
+    /**
+     * 滚轮每经过一个item回调一次
+     */
+    int DELIVERY_EVERY_STEP = 1;
+    /**
+     * 每帧最多回调一次
+     */
+    int DELIVERY_PER_FRAME = 2;
+    /**
+     * 所有滚轮停止后回调一次
+     */
+    int DELIVERY_ON_SETTLE = 3;
+}
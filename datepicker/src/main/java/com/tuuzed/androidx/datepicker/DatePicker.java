@@ -1,370 +1,1207 @@
 package com.tuuzed.androidx.datepicker;
 
 import android.content.Context;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
 import android.graphics.Color;
 import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.Gravity;
 import android.widget.FrameLayout;
+import android.widget.LinearLayout;
 import android.widget.TextView;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.tuuzed.androidx.datepicker.internal.CalendarMath;
+import com.tuuzed.androidx.datepicker.internal.DateFormats;
+import com.tuuzed.androidx.datepicker.internal.EpochDayWheelAdapter;
 import com.tuuzed.androidx.datepicker.internal.NumericWheelAdapter;
+import com.tuuzed.androidx.datepicker.internal.Traces;
 import com.tuuzed.androidx.datepicker.internal.Utils;
+import com.tuuzed.androidx.datepicker.internal.WheelMetrics;
+import com.tuuzed.androidx.datepicker.internal.WheelStyle;
 import com.tuuzed.androidx.datepicker.internal.WheelView;
 
+import java.io.IOException;
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 
 public class DatePicker extends FrameLayout {
 
+    /**
+     * 获取新的格式化实例，由缓存的实例复制而来，每次调用返回不同的对象，可以修改或交给其他线程。
+     * 只需要格式化时使用 {@link #formatDate(int, Date, StringBuilder)}，不创建对象
+     */
     @NonNull
     public static DateFormat getDateFormat(@DatePickerType int type) {
-        switch (type) {
-            case DatePickerType.TYPE_HM:
-                return new SimpleDateFormat("hh:mm", Locale.getDefault());
-            case DatePickerType.TYPE_YMDHM:
-                return new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-            case DatePickerType.TYPE_YMDH:
-                return new SimpleDateFormat("yyyy-MM-dd HH", Locale.getDefault());
-            case DatePickerType.TYPE_YMD:
-                return new SimpleDateFormat("yyyy-MM-dd", Locale.getDefault());
-            case DatePickerType.TYPE_YM:
-                return new SimpleDateFormat("yyyy-MM", Locale.getDefault());
-            case DatePickerType.TYPE_Y:
-                return new SimpleDateFormat("yyyy", Locale.getDefault());
-            default:
-                return new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-        }
+        return DateFormats.newFormat(type, Locale.getDefault());
     }
 
-    private WheelView mWvYear;
-    private WheelView mWvMonth;
-    private WheelView mWvDay;
-    private WheelView mWvHour;
-    private WheelView mWvMinute;
-    private TextView mTvYear;
-    private TextView mTvMonth;
-    private TextView mTvDay;
-    private TextView mTvHour;
-    private TextView mTvMinute;
+    /**
+     * 获取指定 Locale 的新的格式化实例
+     *
+     * @see #getDateFormat(int)
+     */
+    @NonNull
+    public static DateFormat getDateFormat(@DatePickerType int type, @NonNull Locale locale) {
+        return DateFormats.newFormat(type, locale);
+    }
+
+    /**
+     * 格式化日期并追加到 out，不创建中间 String，可在任意线程调用
+     */
+    public static void formatDate(@DatePickerType int type, @NonNull Date date, @NonNull StringBuilder out) {
+        DateFormats.format(type, Locale.getDefault(), date.getTime(), out);
+    }
+
+    // 以代码创建时的默认设置，reset 时恢复
+    private static final int DEFAULT_MIN_YEAR = 1970;
+    private static final int DEFAULT_MAX_YEAR = 2100;
+    private static final int DEFAULT_TEXT_COLOR = Color.BLACK;
+
+    // 列，日期列的值是 epoch day，与年月日三列互为替代
+    private static final int COLUMN_DATE = 0;
+    private static final int COLUMN_YEAR = 1;
+    private static final int COLUMN_MONTH = 2;
+    private static final int COLUMN_DAY = 3;
+    private static final int COLUMN_HOUR = 4;
+    private static final int COLUMN_MINUTE = 5;
+    private static final int COLUMN_COUNT = 6;
+    /**
+     * 各列宽度的权重
+     */
+    private static final int[] COLUMN_WEIGHTS = {25, 10, 7, 8, 8, 8};
+    /**
+     * 各列的标签，0 表示没有标签
+     */
+    private static final int[] COLUMN_LABELS = {
+            0, R.string.year, R.string.month, R.string.day, R.string.hour, R.string.minute
+    };
+
+    /**
+     * 各列的滚轮，只在当前类型需要时创建，类型切换后移出布局留待复用
+     */
+    private final WheelView[] mWheels = new WheelView[COLUMN_COUNT];
+    private final TextView[] mLabels = new TextView[COLUMN_COUNT];
+    /**
+     * 选中的年、月、日、时、分，不依赖滚轮是否存在
+     */
+    private final int[] mValues = new int[COLUMN_COUNT];
+    private LinearLayout mLayout;
+    @Nullable
+    private WheelStyle mWheelStyle;
+    /**
+     * 正在将选中的值同步到滚轮，此时忽略滚轮的回调
+     */
+    private boolean mSyncingWheels;
     @Nullable
     private OnDateChangedListener mOnDateChangedListener;
+    @Nullable
+    private OnDateFieldsChangedListener mOnDateFieldsChangedListener;
     private Calendar mCalendar;
+    /**
+     * 是否有尚未回调的日期变化
+     */
+    private boolean mDateChangePending;
+    private final Runnable mDispatchDateChanged = new Runnable() {
+        @Override
+        public void run() {
+            dispatchDateChanged();
+        }
+    };
+    private final WheelView.OnWheelChangedListener mWheelChangedListener = new WheelView.OnWheelChangedListener() {
+        @Override
+        public void onChanged(WheelView wheel, int oldValue, int newValue) {
+            if (mSyncingWheels) {
+                return;
+            }
+            for (int column = 0; column < COLUMN_COUNT; column++) {
+                if (mWheels[column] == wheel) {
+                    applyValue(column, getMinValue(column) + newValue * getStep(column));
+                    return;
+                }
+            }
+        }
+    };
+    private final WheelView.OnWheelScrollListener mWheelScrollListener = new WheelView.OnWheelScrollListener() {
+        @Override
+        public void onScrollingStarted(WheelView wheel) {
+        }
+
+        @Override
+        public void onScrollingFinished(WheelView wheel) {
+            if (mDateChangeDelivery == DateChangeDelivery.DELIVERY_ON_SETTLE && mDateChangePending && !isScrolling()) {
+                dispatchDateChanged();
+            }
+        }
+    };
 
 
     // 自定义属性
     private int mMinYear;
     private int mMaxYear;
     private int mDatePickerType;
-    private int mTextColor = Color.BLACK;
+    private int mDateChangeDelivery;
+    private int mTextColor = DEFAULT_TEXT_COLOR;
+    private int mMinuteInterval = 1;
+    private int mMinHour = 0;
+    private int mMaxHour = 23;
+    /**
+     * 最小、最大日期的各字段，按列存放，日期列为 epoch day。mMinDate、mMaxDate 是实际可选的一端，
+     * 由设置的 mRequestedMinDate、mRequestedMaxDate 按分钟间隔和小时范围得出，见 updateDateBounds
+     */
+    private boolean mHasMinDate;
+    private boolean mHasMaxDate;
+    private final int[] mMinDate = new int[COLUMN_COUNT];
+    private final int[] mMaxDate = new int[COLUMN_COUNT];
+    private final int[] mRequestedMinDate = new int[COLUMN_COUNT];
+    private final int[] mRequestedMaxDate = new int[COLUMN_COUNT];
+    /**
+     * 最大日期比最小日期后设置，两端冲突时以它为准
+     */
+    private boolean mMaxDateSetLast;
+    // 批量更新，见 beginBatchUpdate
+    private static final int DIRTY_TYPE = 1;
+    private static final int DIRTY_TEXT_COLOR = 1 << 1;
+    private int mBatchDepth;
+    private int mBatchDirty;
+    private long mBatchDateKey;
+    @Nullable
+    private WheelMetrics mMetrics;
 
     public DatePicker(Context context) {
         this(context, null);
     }
 
+    /**
+     * 以代码创建指定类型的选择器，只创建该类型需要的列
+     *
+     * @param context the context
+     * @param type    选择器类型
+     */
+    public DatePicker(Context context, @DatePickerType int type) {
+        super(context);
+        mDatePickerType = type;
+        init(context, null, 0);
+    }
+
     public DatePicker(Context context, @Nullable AttributeSet attrs) {
         this(context, attrs, 0);
     }
 
     public DatePicker(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+        mDatePickerType = DatePickerType.TYPE_YMDHM;
         init(context, attrs, defStyleAttr);
     }
 
     private void init(Context context, @Nullable AttributeSet attrs, int defStyleAttr) {
         mCalendar = Calendar.getInstance();
 
-        TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DatePicker);
-        mMinYear = a.getInteger(R.styleable.DatePicker_dp_minYear, 1970);
-        mMaxYear = a.getInteger(R.styleable.DatePicker_dp_maxYear, 2100);
-        mDatePickerType = a.getInteger(R.styleable.DatePicker_dp_datePickerType, DatePickerType.TYPE_YMDHM);
-        mTextColor = a.getColor(R.styleable.DatePicker_dp_textColor, Color.BLACK);
-        a.recycle();
-
-        inflate(context, R.layout.widget_datepicker, this);
-
-        mWvYear = findViewById(R.id.wv_year);
-        mWvMonth = findViewById(R.id.wv_month);
-        mWvDay = findViewById(R.id.wv_day);
-        mWvHour = findViewById(R.id.wv_hour);
-        mWvMinute = findViewById(R.id.wv_minute);
-
-        mTvYear = findViewById(R.id.tv_year);
-        mTvMonth = findViewById(R.id.tv_month);
-        mTvDay = findViewById(R.id.tv_day);
-        mTvHour = findViewById(R.id.tv_hour);
-        mTvMinute = findViewById(R.id.tv_minute);
-
-        // 年
-        mWvYear.setCyclic(false);
-        mWvYear.addChangingListener(new WheelView.OnWheelChangedListener() {
-            @Override
-            public void onChanged(WheelView wheel, int oldValue, int newValue) {
-                notifyDayAdapterChange();
-                mCalendar.set(Calendar.YEAR, getYear());
-                if (mOnDateChangedListener != null) {
-                    mOnDateChangedListener.onDateChanged(mCalendar.getTime());
-                }
-            }
-        });
-        mWvYear.setAdapter(new NumericWheelAdapter(mMinYear, mMaxYear));
-        // 月
-        mWvMonth.setCyclic(true);
-        mWvMonth.addChangingListener(new WheelView.OnWheelChangedListener() {
-            @Override
-            public void onChanged(WheelView wheel, int oldValue, int newValue) {
-                notifyDayAdapterChange();
-                mCalendar.set(Calendar.MONTH, getMonth() - 1);
-                if (mOnDateChangedListener != null) {
-                    mOnDateChangedListener.onDateChanged(mCalendar.getTime());
-                }
-            }
-        });
-        mWvMonth.setAdapter(new NumericWheelAdapter(1, 12));
-        // 日
-        mWvDay.setCyclic(true);
-        mWvDay.addChangingListener(new WheelView.OnWheelChangedListener() {
-            @Override
-            public void onChanged(WheelView wheel, int oldValue, int newValue) {
-                mCalendar.set(Calendar.DATE, getDay());
-                if (mOnDateChangedListener != null) {
-                    mOnDateChangedListener.onDateChanged(mCalendar.getTime());
-                }
-            }
-        });
-        // 时
-        mWvHour.setAdapter(new NumericWheelAdapter(0, 23));
-        mWvHour.setCyclic(true);
-        mWvHour.addChangingListener(new WheelView.OnWheelChangedListener() {
-            @Override
-            public void onChanged(WheelView wheel, int oldValue, int newValue) {
-                mCalendar.set(Calendar.HOUR_OF_DAY, getHour());
-                if (mOnDateChangedListener != null) {
-                    mOnDateChangedListener.onDateChanged(mCalendar.getTime());
-                }
-            }
-        });
-
-        mWvDay.setAdapter(new NumericWheelAdapter(1, Utils.getLastDayByYearMonth(getYear(), getMonth())));
-        // 分
-        mWvMinute.setCyclic(true);
-        mWvMinute.addChangingListener(new WheelView.OnWheelChangedListener() {
-            @Override
-            public void onChanged(WheelView wheel, int oldValue, int newValue) {
-                mCalendar.set(Calendar.MINUTE, getMinute());
-                if (mOnDateChangedListener != null) {
-                    mOnDateChangedListener.onDateChanged(mCalendar.getTime());
-                }
-            }
-        });
-        mWvMinute.setAdapter(new NumericWheelAdapter(0, 59));
+        mMinYear = DEFAULT_MIN_YEAR;
+        mMaxYear = DEFAULT_MAX_YEAR;
+        mDateChangeDelivery = DateChangeDelivery.DELIVERY_EVERY_STEP;
+        // 以代码创建时没有属性可读
+        if (attrs != null || defStyleAttr != 0) {
+            TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.DatePicker, defStyleAttr, 0);
+            mMinYear = a.getInteger(R.styleable.DatePicker_dp_minYear, mMinYear);
+            mMaxYear = a.getInteger(R.styleable.DatePicker_dp_maxYear, mMaxYear);
+            mDatePickerType = a.getInteger(R.styleable.DatePicker_dp_datePickerType, mDatePickerType);
+            mTextColor = a.getColor(R.styleable.DatePicker_dp_textColor, mTextColor);
+            mDateChangeDelivery = a.getInteger(R.styleable.DatePicker_dp_dateChangeDelivery, mDateChangeDelivery);
+            mMinuteInterval = a.getInteger(R.styleable.DatePicker_dp_minuteInterval, mMinuteInterval);
+            mMinHour = a.getInteger(R.styleable.DatePicker_dp_minHour, mMinHour);
+            mMaxHour = a.getInteger(R.styleable.DatePicker_dp_maxHour, mMaxHour);
+            a.recycle();
+            checkMinuteInterval(mMinuteInterval);
+            checkHourRange(mMinHour, mMaxHour);
+        }
 
-        setTextColor(mTextColor);
+        mLayout = new LinearLayout(context);
+        mLayout.setOrientation(LinearLayout.HORIZONTAL);
+        mLayout.setGravity(Gravity.CENTER);
+        int padding = Utils.dip2px(context, 12);
+        mLayout.setPadding(padding, 0, padding, 0);
+        addView(mLayout, new LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT));
+
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            mValues[column] = getMinValue(column);
+        }
         // 设置日期
-        setDate(new Date());
+        setDate(new Date(), false);
         setDatePickerType(mDatePickerType);
     }
 
+    /**
+     * 以代码创建一列，不解析布局也不读取滚轮的xml属性
+     */
+    private void createColumn(int column) {
+        Context context = getContext();
+        Resources res = context.getResources();
+        int alphaColor = Utils.getAlphaColor(mTextColor, 0x50);
+
+        WheelView wheel = new WheelView(context, getWheelStyle());
+        wheel.setCyclic(isCyclic(column));
+        wheel.setMetrics(mMetrics);
+        // 只计入本选择器的监听器实际收到的回调
+        wheel.setCountListenerDispatches(false);
+        wheel.setAdapter(createAdapter(column));
+        wheel.setPosition(getPosition(column));
+        wheel.addChangingListener(mWheelChangedListener);
+        wheel.addScrollingListener(mWheelScrollListener);
+        wheel.setLayoutParams(new LinearLayout.LayoutParams(
+                0, LinearLayout.LayoutParams.WRAP_CONTENT, COLUMN_WEIGHTS[column]));
+
+        mWheels[column] = wheel;
+        if (COLUMN_LABELS[column] != 0) {
+            TextView label = new TextView(context);
+            label.setText(COLUMN_LABELS[column]);
+            label.setTextSize(TypedValue.COMPLEX_UNIT_PX, res.getDimension(R.dimen.label_text_size));
+            label.setTextColor(alphaColor);
+            label.setLayoutParams(new LinearLayout.LayoutParams(
+                    LinearLayout.LayoutParams.WRAP_CONTENT, LinearLayout.LayoutParams.WRAP_CONTENT));
+            mLabels[column] = label;
+        }
+    }
+
+    private WheelView.WheelAdapter createAdapter(int column) {
+        if (column == COLUMN_DATE) {
+            return new EpochDayWheelAdapter(getMinValue(column), getMaxValue(column));
+        }
+        return new NumericWheelAdapter(getMinValue(column), getMaxValue(column), getStep(column), null);
+    }
+
+    /**
+     * 年和日期列不循环
+     */
+    private static boolean isCyclic(int column) {
+        return column != COLUMN_YEAR && column != COLUMN_DATE;
+    }
+
+    /**
+     * 将一列加入布局，没有创建过时先创建
+     */
+    private void attachColumn(int column) {
+        if (mWheels[column] == null) {
+            createColumn(column);
+        } else if (mWheels[column].getParent() == null) {
+            syncWheel(column);
+        } else {
+            return;
+        }
+        // 保持列的顺序，每列由滚轮和可能有的标签组成
+        int index = 0;
+        for (int i = 0; i < column; i++) {
+            if (mWheels[i] != null && mWheels[i].getParent() != null) {
+                index += mLabels[i] != null ? 2 : 1;
+            }
+        }
+        mLayout.addView(mWheels[column], index);
+        if (mLabels[column] != null) {
+            mLayout.addView(mLabels[column], index + 1);
+        }
+    }
+
+    /**
+     * 将一列移出布局，滚轮保留以便切换回来时复用，正在进行的滚动随之停止
+     */
+    private void detachColumn(int column) {
+        if (mWheels[column] != null && mWheels[column].getParent() != null) {
+            mLayout.removeView(mWheels[column]);
+            if (mLabels[column] != null) {
+                mLayout.removeView(mLabels[column]);
+            }
+        }
+    }
+
+    /**
+     * 开始批量更新。结束前设置的类型、颜色、范围和日期只保存下来，
+     * 由 {@link #endBatchUpdate()} 一次应用到滚轮，监听器最多回调一次。可以嵌套
+     */
+    public void beginBatchUpdate() {
+        if (mBatchDepth++ == 0) {
+            mBatchDateKey = dateKey(mValues);
+        }
+    }
+
+    /**
+     * 结束批量更新，最外层结束时依次应用颜色、类型、范围和日期，每个滚轮只同步一次
+     */
+    public void endBatchUpdate() {
+        if (mBatchDepth == 0) {
+            throw new IllegalStateException("endBatchUpdate without beginBatchUpdate");
+        }
+        if (--mBatchDepth > 0) {
+            return;
+        }
+        boolean traced = Traces.begin("DatePicker.endBatchUpdate");
+        int dirty = mBatchDirty;
+        mBatchDirty = 0;
+        // 先应用颜色，新建的列直接使用新的样式
+        if ((dirty & DIRTY_TEXT_COLOR) != 0) {
+            applyTextColor();
+        }
+        if ((dirty & DIRTY_TYPE) != 0) {
+            applyDatePickerType();
+        }
+        updateColumns(mBatchDateKey);
+        Traces.end(traced);
+    }
 
     public void setTextColor(@ColorInt int color) {
         mTextColor = color;
-        int alphaColor = Utils.getAlphaColor(color, 0x50);
-        mWvYear.setColor(alphaColor);
-        mWvMonth.setColor(alphaColor);
-        mWvDay.setColor(alphaColor);
-        mWvHour.setColor(alphaColor);
-        mWvMinute.setColor(alphaColor);
+        mWheelStyle = null;
+        if (mBatchDepth > 0) {
+            mBatchDirty |= DIRTY_TEXT_COLOR;
+        } else {
+            applyTextColor();
+        }
+    }
 
-        mWvYear.setSelectColor(color);
-        mWvMonth.setSelectColor(color);
-        mWvDay.setSelectColor(color);
-        mWvHour.setSelectColor(color);
-        mWvMinute.setSelectColor(color);
+    /**
+     * 全部滚轮共用的外观，换颜色时整体替换
+     */
+    private WheelStyle getWheelStyle() {
+        if (mWheelStyle == null) {
+            int textSize = (int) getResources().getDimension(R.dimen.wheel_text_size);
+            mWheelStyle = new WheelStyle(textSize, Utils.getAlphaColor(mTextColor, 0x50), mTextColor, 3);
+        }
+        return mWheelStyle;
+    }
 
-        mTvYear.setTextColor(alphaColor);
-        mTvMonth.setTextColor(alphaColor);
-        mTvDay.setTextColor(alphaColor);
-        mTvHour.setTextColor(alphaColor);
-        mTvMinute.setTextColor(alphaColor);
+    private void applyTextColor() {
+        int color = mTextColor;
+        int alphaColor = Utils.getAlphaColor(color, 0x50);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (mWheels[column] != null) {
+                mWheels[column].setStyle(getWheelStyle());
+            }
+            if (mLabels[column] != null) {
+                mLabels[column].setTextColor(alphaColor);
+            }
+        }
     }
 
     public void setMaxYear(int maxYear) {
         mMaxYear = maxYear;
-        mWvYear.setAdapter(new NumericWheelAdapter(mMinYear, mMaxYear));
-        notifyDayAdapterChange();
+        onBoundsChanged();
     }
 
     public void setMinYear(int minYear) {
         mMinYear = minYear;
-        mWvYear.setAdapter(new NumericWheelAdapter(mMinYear, mMaxYear));
-        notifyDayAdapterChange();
+        onBoundsChanged();
+    }
+
+    /**
+     * 设置分钟的间隔，如 15 时分钟只有 0、15、30、45 四项。当前的分钟向下取到间隔的整数倍
+     *
+     * @param interval 1 到 60 之间的分钟数
+     */
+    public void setMinuteInterval(int interval) {
+        checkMinuteInterval(interval);
+        mMinuteInterval = interval;
+        updateDateBounds();
+        onBoundsChanged();
+    }
+
+    public int getMinuteInterval() {
+        return mMinuteInterval;
+    }
+
+    /**
+     * 设置小时的范围，如 9 到 17 只显示工作时间。当前的小时超出范围时取最近的一端
+     *
+     * @param minHour 最小的小时，0 到 23
+     * @param maxHour 最大的小时，minHour 到 23
+     */
+    public void setHourRange(int minHour, int maxHour) {
+        checkHourRange(minHour, maxHour);
+        mMinHour = minHour;
+        mMaxHour = maxHour;
+        updateDateBounds();
+        onBoundsChanged();
+    }
+
+    public int getMinHour() {
+        return mMinHour;
+    }
+
+    public int getMaxHour() {
+        return mMaxHour;
+    }
+
+    static void checkMinuteInterval(int interval) {
+        if (interval < 1 || interval > 60) {
+            throw new IllegalArgumentException("minute interval must be in 1..60: " + interval);
+        }
+    }
+
+    static void checkHourRange(int minHour, int maxHour) {
+        if (minHour < 0 || maxHour > 23 || minHour > maxHour) {
+            throw new IllegalArgumentException("invalid hour range: " + minHour + ".." + maxHour);
+        }
+    }
+
+    /**
+     * 设置可选的最小日期，精确到分钟。选中的日期早于它时改为它之后第一个可选的时间：
+     * 分钟向上取到间隔的整数倍，当天在小时范围内已没有可选的时间时为次日的第一项
+     *
+     * 与最大日期之间没有可选的时间时以最小日期为准，最大日期暂时收缩到它上面
+     *
+     * @param date 最小日期，null 表示只受年的范围限制
+     */
+    public void setMinDate(@Nullable Date date) {
+        mHasMinDate = date != null;
+        mMaxDateSetLast = false;
+        if (date != null) {
+            splitDate(date, mRequestedMinDate);
+        }
+        updateDateBounds();
+        onBoundsChanged();
+    }
+
+    /**
+     * 设置可选的最大日期，精确到分钟。选中的日期晚于它时改为它之前最后一个可选的时间：
+     * 分钟向下取到间隔的整数倍，当天在小时范围内还没有可选的时间时为前一天的最后一项
+     *
+     * 与最小日期之间没有可选的时间时以最大日期为准，最小日期暂时收缩到它上面
+     *
+     * @param date 最大日期，null 表示只受年的范围限制
+     */
+    public void setMaxDate(@Nullable Date date) {
+        mHasMaxDate = date != null;
+        mMaxDateSetLast = date != null;
+        if (date != null) {
+            splitDate(date, mRequestedMaxDate);
+        }
+        updateDateBounds();
+        onBoundsChanged();
+    }
+
+    /**
+     * 由设置的最小、最大日期得出实际可选的一端，使两端都落在分钟间隔和小时范围上，
+     * 各列的范围因此都不为空。
+     * <p>
+     * 两端之间没有可选的时间时（如先后调用 setMinDate、setMaxDate 移动窗口的中途），
+     * 后设置的一端为准，另一端收缩到它上面，只剩一项可选。另一端设置的值保留，窗口恢复后重新生效
+     */
+    private void updateDateBounds() {
+        int lastMinute = 59 / mMinuteInterval * mMinuteInterval;
+        if (mHasMinDate) {
+            int[] min = mRequestedMinDate;
+            int epochDay = min[COLUMN_DATE];
+            int hour = min[COLUMN_HOUR];
+            int minute = (min[COLUMN_MINUTE] + mMinuteInterval - 1) / mMinuteInterval * mMinuteInterval;
+            if (minute > lastMinute) {
+                hour++;
+                minute = 0;
+            }
+            if (hour < mMinHour) {
+                hour = mMinHour;
+                minute = 0;
+            } else if (hour > mMaxHour) {
+                epochDay++;
+                hour = mMinHour;
+                minute = 0;
+            }
+            setDateBound(mMinDate, epochDay, hour, minute);
+        }
+        if (mHasMaxDate) {
+            int[] max = mRequestedMaxDate;
+            int epochDay = max[COLUMN_DATE];
+            int hour = max[COLUMN_HOUR];
+            int minute = max[COLUMN_MINUTE] / mMinuteInterval * mMinuteInterval;
+            if (hour > mMaxHour) {
+                hour = mMaxHour;
+                minute = lastMinute;
+            } else if (hour < mMinHour) {
+                epochDay--;
+                hour = mMaxHour;
+                minute = lastMinute;
+            }
+            setDateBound(mMaxDate, epochDay, hour, minute);
+        }
+        if (mHasMinDate && mHasMaxDate && dateKey(mMinDate) > dateKey(mMaxDate)) {
+            if (mMaxDateSetLast) {
+                System.arraycopy(mMaxDate, 0, mMinDate, 0, COLUMN_COUNT);
+            } else {
+                System.arraycopy(mMinDate, 0, mMaxDate, 0, COLUMN_COUNT);
+            }
+        }
+    }
+
+    private static void setDateBound(int[] values, int epochDay, int hour, int minute) {
+        int packed = CalendarMath.fromEpochDay(epochDay);
+        values[COLUMN_DATE] = epochDay;
+        values[COLUMN_YEAR] = CalendarMath.packedYear(packed);
+        values[COLUMN_MONTH] = CalendarMath.packedMonth(packed);
+        values[COLUMN_DAY] = CalendarMath.packedDay(packed);
+        values[COLUMN_HOUR] = hour;
+        values[COLUMN_MINUTE] = minute;
+    }
+
+    /**
+     * 将日期拆分为各列的值
+     */
+    private void splitDate(@NonNull Date date, int[] values) {
+        mCalendar.setTime(date);
+        values[COLUMN_YEAR] = mCalendar.get(Calendar.YEAR);
+        values[COLUMN_MONTH] = mCalendar.get(Calendar.MONTH) + 1;
+        values[COLUMN_DAY] = mCalendar.get(Calendar.DATE);
+        values[COLUMN_HOUR] = mCalendar.get(Calendar.HOUR_OF_DAY);
+        values[COLUMN_MINUTE] = mCalendar.get(Calendar.MINUTE);
+        values[COLUMN_DATE] = (int) CalendarMath.toEpochDay(values[COLUMN_YEAR], values[COLUMN_MONTH], values[COLUMN_DAY]);
     }
 
     public void setDatePickerType(@DatePickerType int type) {
         mDatePickerType = type;
-        switch (type) {
-            case DatePickerType.TYPE_YMDHM:
-                mWvYear.setVisibility(VISIBLE);
-                mWvMonth.setVisibility(VISIBLE);
-                mWvDay.setVisibility(VISIBLE);
-                mWvHour.setVisibility(VISIBLE);
-                mWvMinute.setVisibility(VISIBLE);
-
-                mTvYear.setVisibility(VISIBLE);
-                mTvMonth.setVisibility(VISIBLE);
-                mTvDay.setVisibility(VISIBLE);
-                mTvHour.setVisibility(VISIBLE);
-                mTvMinute.setVisibility(VISIBLE);
-                break;
+        if (mBatchDepth > 0) {
+            mBatchDirty |= DIRTY_TYPE;
+        } else {
+            applyDatePickerType();
+        }
+    }
+
+    /**
+     * 按类型加入需要的列，移出其他的列
+     */
+    private void applyDatePickerType() {
+        int mask;
+        switch (mDatePickerType) {
             case DatePickerType.TYPE_YMDH:
-                mWvYear.setVisibility(VISIBLE);
-                mWvMonth.setVisibility(VISIBLE);
-                mWvDay.setVisibility(VISIBLE);
-                mWvHour.setVisibility(VISIBLE);
-                mWvMinute.setVisibility(GONE);
-
-                mTvYear.setVisibility(VISIBLE);
-                mTvMonth.setVisibility(VISIBLE);
-                mTvDay.setVisibility(VISIBLE);
-                mTvHour.setVisibility(VISIBLE);
-                mTvMinute.setVisibility(GONE);
+                mask = columns(COLUMN_YEAR, COLUMN_HOUR);
                 break;
             case DatePickerType.TYPE_YMD:
-                mWvYear.setVisibility(VISIBLE);
-                mWvMonth.setVisibility(VISIBLE);
-                mWvDay.setVisibility(VISIBLE);
-                mWvHour.setVisibility(GONE);
-                mWvMinute.setVisibility(GONE);
-
-                mTvYear.setVisibility(VISIBLE);
-                mTvMonth.setVisibility(VISIBLE);
-                mTvDay.setVisibility(VISIBLE);
-                mTvHour.setVisibility(GONE);
-                mTvMinute.setVisibility(GONE);
+                mask = columns(COLUMN_YEAR, COLUMN_DAY);
                 break;
             case DatePickerType.TYPE_YM:
-                mWvYear.setVisibility(VISIBLE);
-                mWvMonth.setVisibility(VISIBLE);
-                mWvDay.setVisibility(GONE);
-                mWvHour.setVisibility(GONE);
-                mWvMinute.setVisibility(GONE);
-
-                mTvYear.setVisibility(VISIBLE);
-                mTvMonth.setVisibility(VISIBLE);
-                mTvDay.setVisibility(GONE);
-                mTvHour.setVisibility(GONE);
-                mTvMinute.setVisibility(GONE);
+                mask = columns(COLUMN_YEAR, COLUMN_MONTH);
                 break;
             case DatePickerType.TYPE_Y:
-                mWvYear.setVisibility(VISIBLE);
-                mWvMonth.setVisibility(GONE);
-                mWvDay.setVisibility(GONE);
-                mWvHour.setVisibility(GONE);
-                mWvMinute.setVisibility(GONE);
-
-                mTvYear.setVisibility(VISIBLE);
-                mTvMonth.setVisibility(GONE);
-                mTvDay.setVisibility(GONE);
-                mTvHour.setVisibility(GONE);
-                mTvMinute.setVisibility(GONE);
+                mask = columns(COLUMN_YEAR, COLUMN_YEAR);
                 break;
             case DatePickerType.TYPE_HM:
-                mWvYear.setVisibility(GONE);
-                mWvMonth.setVisibility(GONE);
-                mWvDay.setVisibility(GONE);
-                mWvHour.setVisibility(VISIBLE);
-                mWvMinute.setVisibility(VISIBLE);
-
-                mTvYear.setVisibility(GONE);
-                mTvMonth.setVisibility(GONE);
-                mTvDay.setVisibility(GONE);
-                mTvHour.setVisibility(VISIBLE);
-                mTvMinute.setVisibility(VISIBLE);
+                mask = columns(COLUMN_HOUR, COLUMN_MINUTE);
+                break;
+            case DatePickerType.TYPE_DATE_HM:
+                mask = columns(COLUMN_DATE, COLUMN_DATE) | columns(COLUMN_HOUR, COLUMN_MINUTE);
                 break;
+            case DatePickerType.TYPE_YMDHM:
+            default:
+                mask = columns(COLUMN_YEAR, COLUMN_MINUTE);
+                break;
+        }
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if ((mask & (1 << column)) != 0) {
+                attachColumn(column);
+            } else {
+                detachColumn(column);
+            }
         }
     }
 
+    /**
+     * @return first 到 last 之间（包括两端）的列的位掩码
+     */
+    private static int columns(int first, int last) {
+        return (1 << (last + 1)) - (1 << first);
+    }
+
     @DatePickerType
     public int getDatePickerType() {
         return mDatePickerType;
     }
 
     public void setDate(@NonNull Date date) {
-        mCalendar.setTime(date);
+        setDate(date, true);
+    }
+
+    /**
+     * 一次设置全部字段，日的范围只重新计算一次
+     *
+     * @param date   日期
+     * @param notify 日期变化时是否回调监听器，最多回调一次
+     */
+    public void setDate(@NonNull Date date, boolean notify) {
+        setEpochMillis(date.getTime(), notify);
+    }
+
+    @NonNull
+    public Date getDate() {
+        return new Date(getEpochMillis());
+    }
+
+    /**
+     * 选中的日期，精确到分钟
+     *
+     * @return epoch millis
+     */
+    public long getEpochMillis() {
+        mCalendar.set(getYear(), getMonth() - 1, getDay(), getHour(), getMinute(), 0);
+        mCalendar.set(Calendar.MILLISECOND, 0);
+        return mCalendar.getTimeInMillis();
+    }
+
+    public void setEpochMillis(long epochMillis) {
+        setEpochMillis(epochMillis, true);
+    }
+
+    /**
+     * 一次设置全部字段，日的范围只重新计算一次
+     *
+     * @param epochMillis 日期
+     * @param notify      日期变化时是否回调监听器，最多回调一次
+     */
+    public void setEpochMillis(long epochMillis, boolean notify) {
+        mCalendar.setTimeInMillis(epochMillis);
         setDate(mCalendar.get(Calendar.YEAR),
                 mCalendar.get(Calendar.MONTH) + 1,
                 mCalendar.get(Calendar.DATE),
                 mCalendar.get(Calendar.HOUR_OF_DAY),
-                mCalendar.get(Calendar.MINUTE)
+                mCalendar.get(Calendar.MINUTE),
+                notify
         );
     }
 
-    @NonNull
-    public Date getDate() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(getYear(), getMonth() - 1, getDay(), getHour(), getMinute());
-        return calendar.getTime();
+    /**
+     * 选中的日期
+     *
+     * @return epoch minute
+     */
+    public long getEpochMinute() {
+        long epochMillis = getEpochMillis();
+        long epochMinute = epochMillis / 60000;
+        return epochMillis < 0 && epochMinute * 60000 != epochMillis ? epochMinute - 1 : epochMinute;
+    }
+
+    /**
+     * 打包的年月日
+     *
+     * @return year * 10000 + month * 100 + day，如 20261018
+     */
+    public int getPackedDate() {
+        return CalendarMath.pack(getYear(), getMonth(), getDay());
+    }
+
+    /**
+     * 设置打包的年月日，时分不变
+     *
+     * @param packedDate year * 10000 + month * 100 + day
+     */
+    public void setPackedDate(int packedDate) {
+        setDate(CalendarMath.packedYear(packedDate),
+                CalendarMath.packedMonth(packedDate),
+                CalendarMath.packedDay(packedDate),
+                getHour(),
+                getMinute(),
+                true
+        );
+    }
+
+    /**
+     * 打包的时分
+     *
+     * @return hour * 100 + minute，如 1530
+     */
+    public int getPackedTime() {
+        return getHour() * 100 + getMinute();
+    }
+
+    /**
+     * 设置打包的时分，年月日不变
+     *
+     * @param packedTime hour * 100 + minute
+     */
+    public void setPackedTime(int packedTime) {
+        setDate(getYear(), getMonth(), getDay(), packedTime / 100, packedTime % 100, true);
+    }
+
+    /**
+     * 以当前类型的格式将选中的日期追加到 out，数字固定为 ASCII，不创建任何对象
+     */
+    public void formatDate(@NonNull StringBuilder out) {
+        formatDate((Appendable) out);
+    }
+
+    /**
+     * 以当前类型的格式将选中的日期追加到 out，数字固定为 ASCII
+     */
+    public void formatDate(@NonNull Appendable out) {
+        try {
+            DateFormats.format(mDatePickerType, getYear(), getMonth(), getDay(), getHour(), getMinute(), out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public void setOnDateChangedListener(OnDateChangedListener listener) {
         mOnDateChangedListener = listener;
     }
 
+    /**
+     * 设置以基本类型回调的监听器，回调时不创建 Date 对象
+     */
+    public void setOnDateFieldsChangedListener(OnDateFieldsChangedListener listener) {
+        mOnDateFieldsChangedListener = listener;
+    }
+
+    /**
+     * 设置 {@link OnDateChangedListener} 的回调时机
+     */
+    public void setDateChangeDelivery(@DateChangeDelivery int delivery) {
+        mDateChangeDelivery = delivery;
+        if (mDateChangePending) {
+            dispatchDateChanged();
+        }
+    }
+
+    @DateChangeDelivery
+    public int getDateChangeDelivery() {
+        return mDateChangeDelivery;
+    }
+
+    /**
+     * 开启或关闭 systrace/Perfetto 区段，覆盖全部选择器和滚轮，默认关闭。需要 API 18 及以上
+     */
+    public static void setTraceEnabled(boolean enabled) {
+        Traces.setEnabled(enabled);
+    }
+
+    /**
+     * 设置运行时计数，全部滚轮共用。监听器的回调次数只计入实际回调
+     * {@link OnDateChangedListener} 或 {@link OnDateFieldsChangedListener} 的次数
+     *
+     * @param metrics 为null时停止计数
+     */
+    public void setMetrics(@Nullable WheelMetrics metrics) {
+        mMetrics = metrics;
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (mWheels[column] != null) {
+                mWheels[column].setMetrics(metrics);
+            }
+        }
+    }
+
+    @Nullable
+    public WheelMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 回到可以复用的状态：清除监听器，停止所有滚动，放弃尚未回调的变化，
+     * 年的范围、最小最大日期、分钟间隔、小时范围、文字颜色、回调时机和运行时计数恢复为以代码创建时的默认值。
+     * 日期和类型保持不变，由调用者重新设置
+     */
+    public void reset() {
+        mOnDateChangedListener = null;
+        mOnDateFieldsChangedListener = null;
+        unbind();
+        setMetrics(null);
+        beginBatchUpdate();
+        setMinDate(null);
+        setMaxDate(null);
+        setMinYear(DEFAULT_MIN_YEAR);
+        setMaxYear(DEFAULT_MAX_YEAR);
+        setMinuteInterval(1);
+        setHourRange(0, 23);
+        setTextColor(DEFAULT_TEXT_COLOR);
+        setDateChangeDelivery(DateChangeDelivery.DELIVERY_EVERY_STEP);
+        endBatchUpdate();
+    }
+
+    /**
+     * 将复用的选择器（如 RecyclerView 的行）绑定到新的日期。不回调监听器，没有动画，
+     * 滚轮尺寸不变时不重新布局，适配器原地更新范围。进行中的滚动会先停止
+     *
+     * @param date    日期
+     * @param type    类型
+     * @param minDate 最小日期，null 表示只受年的范围限制
+     * @param maxDate 最大日期，null 表示只受年的范围限制
+     */
+    public void bind(@NonNull Date date, @DatePickerType int type, @Nullable Date minDate, @Nullable Date maxDate) {
+        boolean traced = Traces.begin("DatePicker.bind");
+        unbind();
+        beginBatchUpdate();
+        if (type != mDatePickerType) {
+            setDatePickerType(type);
+        }
+        setMinDate(minDate);
+        setMaxDate(maxDate);
+        setEpochMillis(date.getTime(), false);
+        endBatchUpdate();
+        Traces.end(traced);
+    }
+
+    /**
+     * 行被回收时调用：停止拖动、惯性滚动和对齐，放弃尚未回调的变化。监听器保留
+     */
+    public void unbind() {
+        // 先放弃尚未回调的变化，停止滚动时不再回调
+        mDateChangePending = false;
+        removeCallbacks(mDispatchDateChanged);
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (mWheels[column] != null) {
+                mWheels[column].stopScrolling();
+            }
+        }
+    }
+
+    /**
+     * 是否有滚轮正在滚动
+     */
+    private boolean isScrolling() {
+        for (int column = 0; column < COLUMN_COUNT; column++) {
+            if (mWheels[column] != null && mWheels[column].isScrolling()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 日期字段变化，按回调时机通知监听器
+     */
+    private void onDateFieldChanged() {
+        if (mBatchDepth > 0) {
+            return;
+        }
+        switch (mDateChangeDelivery) {
+            case DateChangeDelivery.DELIVERY_PER_FRAME:
+                if (!mDateChangePending) {
+                    mDateChangePending = true;
+                    Utils.postOnAnimation(this, mDispatchDateChanged);
+                }
+                break;
+            case DateChangeDelivery.DELIVERY_ON_SETTLE:
+                mDateChangePending = true;
+                if (!isScrolling()) {
+                    dispatchDateChanged();
+                }
+                break;
+            default:
+                dispatchDateChanged();
+                break;
+        }
+    }
+
+    private void dispatchDateChanged() {
+        // 只有等待中的变化可能已安排了回调，逐步回调时不必每次访问消息队列
+        if (mDateChangePending) {
+            mDateChangePending = false;
+            removeCallbacks(mDispatchDateChanged);
+        }
+        if (mMetrics != null && (mOnDateFieldsChangedListener != null || mOnDateChangedListener != null)) {
+            mMetrics.recordListenerDispatch();
+        }
+        boolean traced = Traces.begin("DatePicker.dispatchDateChanged");
+        if (mOnDateFieldsChangedListener != null) {
+            mOnDateFieldsChangedListener.onDateChanged(getYear(), getMonth(), getDay(), getHour(), getMinute());
+        }
+        if (mOnDateChangedListener != null) {
+            mOnDateChangedListener.onDateChanged(getDate());
+        }
+        Traces.end(traced);
+    }
+
     private int getYear() {
-        return mMinYear + mWvYear.getPosition();
+        return mValues[COLUMN_YEAR];
     }
 
     private int getMonth() {
-        return 1 + mWvMonth.getPosition();
+        return mValues[COLUMN_MONTH];
     }
 
     private int getDay() {
-        return 1 + mWvDay.getPosition();
+        return mValues[COLUMN_DAY];
     }
 
     private int getHour() {
-        //noinspection PointlessArithmeticExpression
-        return 0 + mWvHour.getPosition();
+        return mValues[COLUMN_HOUR];
     }
 
     private int getMinute() {
-        //noinspection PointlessArithmeticExpression
-        return 0 + mWvMinute.getPosition();
-    }
-
-    private void setDate(int year, int month, int day, int hour, int minute) {
-        mWvYear.setPosition(year - mMinYear);
-        mWvMonth.setPosition(month - 1);
-        mWvDay.setPosition(day - 1);
-        mWvHour.setPosition(hour);
-        mWvMinute.setPosition(minute);
-        notifyDayAdapterChange();
-    }
-
-    private void notifyDayAdapterChange() {
-        int itemsCount = mWvDay.getAdapter().getItemsCount();
-        int currentItem = mWvDay.getPosition();
-        int year = getYear();
-        int month = getMonth();
-        int maxDay = Utils.getLastDayByYearMonth(year, month);
-        mWvDay.setAdapter(new NumericWheelAdapter(1, maxDay));
-        if (mWvDay.getAdapter().getItemsCount() != itemsCount) {
-            if (currentItem > mWvDay.getAdapter().getItemsCount()) {
-                mWvDay.setPosition(mWvDay.getAdapter().getItemsCount());
+        return mValues[COLUMN_MINUTE];
+    }
+
+    private int getMinValue(int column) {
+        switch (column) {
+            case COLUMN_DATE:
+                int minEpochDay = (int) CalendarMath.toEpochDay(mMinYear, 1, 1);
+                return mHasMinDate ? Math.max(minEpochDay, mMinDate[COLUMN_DATE]) : minEpochDay;
+            case COLUMN_YEAR:
+                return mHasMinDate ? Math.max(mMinYear, mMinDate[COLUMN_YEAR]) : mMinYear;
+            case COLUMN_MONTH:
+            case COLUMN_DAY:
+                return isAtMinDate(column) ? mMinDate[column] : 1;
+            case COLUMN_HOUR:
+                return isAtMinDate(column) ? mMinDate[column] : mMinHour;
+            default:
+                // 最小日期的分钟已在间隔上
+                return isAtMinDate(column) ? mMinDate[column] : 0;
+        }
+    }
+
+    private int getMaxValue(int column) {
+        switch (column) {
+            case COLUMN_DATE:
+                int maxEpochDay = (int) CalendarMath.toEpochDay(mMaxYear, 12, 31);
+                return mHasMaxDate ? Math.min(maxEpochDay, mMaxDate[COLUMN_DATE]) : maxEpochDay;
+            case COLUMN_YEAR:
+                return mHasMaxDate ? Math.min(mMaxYear, mMaxDate[COLUMN_YEAR]) : mMaxYear;
+            case COLUMN_MONTH:
+                return isAtMaxDate(column) ? mMaxDate[column] : 12;
+            case COLUMN_DAY:
+                int lastDay = Utils.getLastDayByYearMonth(getYear(), getMonth());
+                return isAtMaxDate(column) ? Math.min(lastDay, mMaxDate[column]) : lastDay;
+            case COLUMN_HOUR:
+                return isAtMaxDate(column) ? mMaxDate[column] : mMaxHour;
+            default:
+                return isAtMaxDate(column) ? mMaxDate[column] : 59;
+        }
+    }
+
+    /**
+     * 高于 column 的各列是否都等于最小日期的对应字段，此时 column 的范围从最小日期开始
+     */
+    private boolean isAtMinDate(int column) {
+        if (!mHasMinDate) {
+            return false;
+        }
+        for (int c = COLUMN_YEAR; c < column; c++) {
+            if (mValues[c] != mMinDate[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 高于 column 的各列是否都等于最大日期的对应字段，此时 column 的范围到最大日期为止
+     */
+    private boolean isAtMaxDate(int column) {
+        if (!mHasMaxDate) {
+            return false;
+        }
+        for (int c = COLUMN_YEAR; c < column; c++) {
+            if (mValues[c] != mMaxDate[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 循环的列是否包含全部的值，没有被小时范围或最小、最大日期截断
+     */
+    private boolean isFullRange(int column) {
+        int min = getMinValue(column);
+        int max = getMaxValue(column);
+        switch (column) {
+            case COLUMN_MONTH:
+                return min == 1 && max == 12;
+            case COLUMN_DAY:
+                return min == 1 && max == Utils.getLastDayByYearMonth(getYear(), getMonth());
+            case COLUMN_HOUR:
+                return min == 0 && max == 23;
+            default:
+                return min == 0 && max == 59;
+        }
+    }
+
+    /**
+     * 相邻两项的差，只有分钟可能不为 1
+     */
+    private int getStep(int column) {
+        return column == COLUMN_MINUTE ? mMinuteInterval : 1;
+    }
+
+    /**
+     * 选中的值在滚轮中的位置
+     */
+    private int getPosition(int column) {
+        return (mValues[column] - getMinValue(column)) / getStep(column);
+    }
+
+    /**
+     * 一列中最后一项的值，范围为空时返回最小值
+     */
+    private int getLastValue(int column) {
+        int min = getMinValue(column);
+        int step = getStep(column);
+        return min + Math.max(0, getMaxValue(column) - min) / step * step;
+    }
+
+    /**
+     * 按年月日时分排序的键
+     */
+    private static long dateKey(int year, int month, int day, int hour, int minute) {
+        return (((year * 100L + month) * 100 + day) * 100 + hour) * 100 + minute;
+    }
+
+    private static long dateKey(int[] values) {
+        return dateKey(values[COLUMN_YEAR], values[COLUMN_MONTH], values[COLUMN_DAY],
+                values[COLUMN_HOUR], values[COLUMN_MINUTE]);
+    }
+
+    /**
+     * 以一次批量更新设置全部字段，滚轮各同步一次，监听器最多回调一次
+     *
+     * @param notify 为 false 时不回调，批量更新中调用时之前的变化也不再回调
+     */
+    private void setDate(int year, int month, int day, int hour, int minute, boolean notify) {
+        beginBatchUpdate();
+        setDateValues(year, month, day, hour, minute);
+        if (!notify) {
+            mBatchDateKey = dateKey(mValues);
+        }
+        endBatchUpdate();
+    }
+
+    /**
+     * 设置日期，超出最小、最大日期时取最近的一端
+     */
+    private void setDateValues(int year, int month, int day, int hour, int minute) {
+        long key = dateKey(year, month, day, hour, minute);
+        if (mHasMinDate && key < dateKey(mMinDate)) {
+            setDateValues(mMinDate);
+        } else if (mHasMaxDate && key > dateKey(mMaxDate)) {
+            setDateValues(mMaxDate);
+        } else {
+            setValue(COLUMN_YEAR, year);
+            setValue(COLUMN_MONTH, month);
+            setValue(COLUMN_DAY, day);
+            setValue(COLUMN_HOUR, hour);
+            setValue(COLUMN_MINUTE, minute);
+        }
+    }
+
+    private void setDateValues(int[] values) {
+        for (int column = COLUMN_YEAR; column < COLUMN_COUNT; column++) {
+            setValue(column, values[column]);
+        }
+    }
+
+    /**
+     * 设置一列的值，不在间隔上的值向下取整。超出范围时包含全部值的循环列回绕，
+     * 被截断的列取最近的一端，不循环的列不做任何响应
+     */
+    private void setValue(int column, int value) {
+        int min = getMinValue(column);
+        int step = getStep(column);
+        int count = (getMaxValue(column) - min) / step + 1;
+        int position = Utils.floorDiv(value - min, step);
+        if (position < 0 || position >= count) {
+            if (!isCyclic(column) || count <= 0) {
+                return;
+            } else if (isFullRange(column)) {
+                position = Utils.getItemIndex(position, count, true);
             } else {
-                mWvDay.setPosition(currentItem);
+                position = position < 0 ? 0 : count - 1;
             }
         }
+        applyValue(column, min + position * step);
+        syncWheel(column);
+    }
+
+    /**
+     * 保存一列的新值，值变化时更新低位各列的范围和日期列并通知监听器
+     */
+    private void applyValue(int column, int value) {
+        if (mValues[column] == value) {
+            return;
+        }
+        mValues[column] = value;
+        if (column == COLUMN_DATE) {
+            int packed = CalendarMath.fromEpochDay(value);
+            mValues[COLUMN_YEAR] = CalendarMath.packedYear(packed);
+            mValues[COLUMN_MONTH] = CalendarMath.packedMonth(packed);
+            mValues[COLUMN_DAY] = CalendarMath.packedDay(packed);
+        }
+        clampLowerColumns(column);
+        onDateFieldChanged();
+    }
+
+    /**
+     * 一列的值变化后，从高到低重新计算低位各列的范围，选中的值超出范围时取最近的一端，
+     * 不在间隔上时向下取整。每列只有常数次运算，适配器原地修改范围
+     */
+    private void clampLowerColumns(int column) {
+        boolean traced = Traces.begin("DatePicker.clampLowerColumns");
+        // 日期列的低位是时和分
+        for (int c = column == COLUMN_DATE ? COLUMN_HOUR : column + 1; c < COLUMN_COUNT; c++) {
+            int min = getMinValue(c);
+            int value = Math.max(min, Math.min(mValues[c], getLastValue(c)));
+            mValues[c] = min + (value - min) / getStep(c) * getStep(c);
+            syncWheel(c);
+        }
+        if (column != COLUMN_DATE && column <= COLUMN_DAY) {
+            mValues[COLUMN_DATE] = (int) CalendarMath.toEpochDay(getYear(), getMonth(), getDay());
+            syncWheel(COLUMN_DATE);
+        }
+        Traces.end(traced);
+    }
+
+    /**
+     * 年、时分或日期的范围变化后重新限定全部的列，批量更新时留到结束时进行
+     */
+    private void onBoundsChanged() {
+        if (mBatchDepth == 0) {
+            updateColumns(dateKey(mValues));
+        }
+    }
+
+    /**
+     * 重新限定全部的列并同步到滚轮，选中的日期与 key 不同时通知监听器
+     */
+    private void updateColumns(long key) {
+        int year = Math.max(getMinValue(COLUMN_YEAR), Math.min(mValues[COLUMN_YEAR], getMaxValue(COLUMN_YEAR)));
+        mValues[COLUMN_YEAR] = year;
+        syncWheel(COLUMN_YEAR);
+        clampLowerColumns(COLUMN_YEAR);
+        if (dateKey(mValues) != key) {
+            onDateFieldChanged();
+        }
+    }
+
+    /**
+     * 将列的范围和选中的值同步到已创建的滚轮，不触发回调。范围不变时适配器不做任何事
+     */
+    private void syncWheel(int column) {
+        WheelView wheel = mWheels[column];
+        // 批量更新时由 endBatchUpdate 统一同步
+        if (wheel != null && mBatchDepth == 0) {
+            mSyncingWheels = true;
+            int min = getMinValue(column);
+            int max = getMaxValue(column);
+            WheelView.WheelAdapter adapter = wheel.getAdapter();
+            if (adapter instanceof NumericWheelAdapter) {
+                ((NumericWheelAdapter) adapter).setRange(min, max, getStep(column));
+            } else {
+                ((EpochDayWheelAdapter) adapter).setRange(min, max);
+            }
+            wheel.setPosition(getPosition(column));
+            mSyncingWheels = false;
+        }
     }
 
     public interface OnDateChangedListener {
         void onDateChanged(@NonNull Date newDate);
     }
 
+    public interface OnDateFieldsChangedListener {
+        /**
+         * @param year   年
+         * @param month  月，1 - 12
+         * @param day    日
+         * @param hour   时，0 - 23
+         * @param minute 分
+         */
+        void onDateChanged(int year, int month, int day, int hour, int minute);
+    }
+
 }
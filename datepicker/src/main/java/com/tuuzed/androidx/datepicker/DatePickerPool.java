@@ -0,0 +1,155 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 反复弹出日期选择对话框时复用 {@link DatePicker}。
+ * <p>
+ * {@link #prewarm(int, int)} 在主线程空闲时提前创建并测量选择器，{@link #acquire(int)} 或
+ * {@link #acquire(int, Date, int, int)} 取出一个已经准备好的实例，用完后以 {@link #release(DatePicker)} 归还。选择器持有创建时的 Context，池应与该 Context（通常是 Activity）
+ * 同生命周期，在 Activity 销毁时调用 {@link #clear()}。只能在主线程使用。
+ */
+public final class DatePickerPool {
+
+    private final Context mContext;
+    private final int mMaxSize;
+    private final List<DatePicker> mPickers = new ArrayList<>();
+    /**
+     * 还需要在空闲时创建的数目
+     */
+    private int mPrewarmCount;
+    private int mPrewarmType = DatePickerType.TYPE_YMDHM;
+    private boolean mIdleHandlerAdded;
+
+    private final MessageQueue.IdleHandler mIdleHandler = new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+            // 每次空闲只创建一个，避免长时间占用主线程
+            if (mPrewarmCount > 0 && mPickers.size() < mMaxSize) {
+                mPrewarmCount--;
+                mPickers.add(create(mPrewarmType));
+            } else {
+                mPrewarmCount = 0;
+            }
+            mIdleHandlerAdded = mPrewarmCount > 0;
+            return mIdleHandlerAdded;
+        }
+    };
+
+    /**
+     * @param context 创建选择器使用的 Context
+     * @param maxSize 池中最多保留的数目
+     */
+    public DatePickerPool(@NonNull Context context, int maxSize) {
+        mContext = context;
+        mMaxSize = maxSize;
+    }
+
+    /**
+     * 在主线程空闲时创建选择器，直到池中有 count 个为止
+     *
+     * @param count 需要准备的数目，不超过 maxSize
+     * @param type  选择器类型，只创建该类型需要的列
+     */
+    public void prewarm(int count, @DatePickerType int type) {
+        mPrewarmType = type;
+        mPrewarmCount = Math.min(count, mMaxSize) - mPickers.size();
+        if (mPrewarmCount > 0 && !mIdleHandlerAdded) {
+            mIdleHandlerAdded = true;
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+    }
+
+    /**
+     * 取出一个选择器，池为空时新建。返回的选择器没有父 View 和监听器，
+     * 日期为当前时间，其余设置与新建的选择器相同
+     *
+     * @param type 选择器类型
+     */
+    @NonNull
+    public DatePicker acquire(@DatePickerType int type) {
+        int size = mPickers.size();
+        if (size == 0) {
+            return create(type);
+        }
+        DatePicker picker = mPickers.remove(size - 1);
+        picker.setDatePickerType(type);
+        picker.setEpochMillis(System.currentTimeMillis());
+        return picker;
+    }
+
+    /**
+     * 取出一个选择器并设置日期和年的范围，滚轮只同步一次，不回调监听器。其余同 {@link #acquire(int)}
+     *
+     * @param type    选择器类型
+     * @param date    日期，超出年的范围时取最近的一端
+     * @param minYear 最小的年
+     * @param maxYear 最大的年
+     */
+    @NonNull
+    public DatePicker acquire(@DatePickerType int type, @NonNull Date date, int minYear, int maxYear) {
+        int size = mPickers.size();
+        DatePicker picker = size == 0 ? create(type) : mPickers.remove(size - 1);
+        picker.beginBatchUpdate();
+        picker.setDatePickerType(type);
+        picker.setMinYear(minYear);
+        picker.setMaxYear(maxYear);
+        picker.setDate(date, false);
+        picker.endBatchUpdate();
+        return picker;
+    }
+
+    /**
+     * 归还选择器：移出父 View，清除监听器和滚动状态，恢复默认设置。池已满时丢弃
+     */
+    public void release(@NonNull DatePicker picker) {
+        ViewGroup parent = (ViewGroup) picker.getParent();
+        if (parent != null) {
+            parent.removeView(picker);
+        }
+        picker.reset();
+        if (mPickers.size() < mMaxSize && !mPickers.contains(picker)) {
+            mPickers.add(picker);
+        }
+    }
+
+    /**
+     * 池中可以立即取出的数目
+     */
+    public int size() {
+        return mPickers.size();
+    }
+
+    /**
+     * 清空池并取消尚未完成的预热
+     */
+    public void clear() {
+        mPickers.clear();
+        mPrewarmCount = 0;
+        if (mIdleHandlerAdded) {
+            mIdleHandlerAdded = false;
+            Looper.myQueue().removeIdleHandler(mIdleHandler);
+        }
+    }
+
+    /**
+     * 创建选择器并按屏幕宽度测量一次，使滚轮的画笔和宽度在显示前就已计算好
+     */
+    private DatePicker create(@DatePickerType int type) {
+        DatePicker picker = new DatePicker(mContext, type);
+        int width = mContext.getResources().getDisplayMetrics().widthPixels;
+        picker.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.AT_MOST),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        return picker;
+    }
+}
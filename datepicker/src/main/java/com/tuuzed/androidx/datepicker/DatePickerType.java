@@ -16,6 +16,7 @@ import java.text.DateFormat;
         DatePickerType.TYPE_YM,
         DatePickerType.TYPE_Y,
         DatePickerType.TYPE_HM,
+        DatePickerType.TYPE_DATE_HM,
 })
 @Retention(RetentionPolicy.SOURCE)
 public @interface DatePickerType {
@@ -25,4 +26,8 @@ public @interface DatePickerType {
     int TYPE_YM = 4;
     int TYPE_Y = 5;
     int TYPE_HM = 6;
+    /**
+     * 一个形如 "Mon 18 Oct 2026" 的日期滚轮，加上时和分
+     */
+    int TYPE_DATE_HM = 7;
 }
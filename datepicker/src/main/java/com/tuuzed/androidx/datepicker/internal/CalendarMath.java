@@ -0,0 +1,133 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+/**
+ * 公历（前推格里高利历）日期计算，只使用常量表和整数运算
+ */
+public final class CalendarMath {
+
+    /**
+     * 平年每月的天数
+     */
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * 0000-03-01 到 1970-01-01 的天数
+     */
+    private static final long DAYS_0000_TO_1970 = 719468;
+
+    /**
+     * 400 年周期的天数
+     */
+    private static final int DAYS_PER_CYCLE = 146097;
+
+    private CalendarMath() {
+    }
+
+    /**
+     * 是否闰年
+     *
+     * @param year 年
+     * @return 闰年返回 true
+     */
+    public static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * 获取指定年月的天数
+     *
+     * @param year  年
+     * @param month 月，1 - 12
+     * @return 天数
+     */
+    public static int getDaysInMonth(int year, int month) {
+        if (month == 2 && isLeapYear(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    /**
+     * 将日期转换为 1970-01-01 起的天数
+     *
+     * @param year  年
+     * @param month 月，1 - 12
+     * @param day   日，1 - 31
+     * @return epoch day
+     */
+    public static long toEpochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * DAYS_PER_CYCLE + dayOfEra - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * 将 1970-01-01 起的天数转换为打包的日期
+     *
+     * @param epochDay epoch day
+     * @return year * 10000 + month * 100 + day
+     * @see #packedYear(int)
+     * @see #packedMonth(int)
+     * @see #packedDay(int)
+     */
+    public static int fromEpochDay(long epochDay) {
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = (z >= 0 ? z : z - DAYS_PER_CYCLE + 1) / DAYS_PER_CYCLE;
+        long dayOfEra = z - era * DAYS_PER_CYCLE;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+        return pack(year, month, day);
+    }
+
+    /**
+     * 获取星期
+     *
+     * @param year  年
+     * @param month 月，1 - 12
+     * @param day   日，1 - 31
+     * @return 与 {@link java.util.Calendar#SUNDAY} - {@link java.util.Calendar#SATURDAY} 一致的星期
+     */
+    public static int getDayOfWeek(int year, int month, int day) {
+        return getDayOfWeek(toEpochDay(year, month, day));
+    }
+
+    /**
+     * 获取星期
+     *
+     * @param epochDay epoch day
+     * @return 与 {@link java.util.Calendar#SUNDAY} - {@link java.util.Calendar#SATURDAY} 一致的星期
+     */
+    public static int getDayOfWeek(long epochDay) {
+        // 1970-01-01 是星期四
+        int dayOfWeek = (int) ((epochDay + 4) % 7);
+        return (dayOfWeek < 0 ? dayOfWeek + 7 : dayOfWeek) + 1;
+    }
+
+    /**
+     * 打包日期
+     *
+     * @return year * 10000 + month * 100 + day
+     */
+    public static int pack(int year, int month, int day) {
+        return year * 10000 + month * 100 + day;
+    }
+
+    public static int packedYear(int packed) {
+        return packed / 10000;
+    }
+
+    public static int packedMonth(int packed) {
+        return packed / 100 % 100;
+    }
+
+    public static int packedDay(int packed) {
+        return packed % 100;
+    }
+}
@@ -0,0 +1,194 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import androidx.annotation.NonNull;
+
+import com.tuuzed.androidx.datepicker.DatePickerType;
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 按 {@link DatePickerType} 和 Locale 缓存的日期格式。
+ * <p>
+ * SimpleDateFormat 不是线程安全的，所以每个线程持有自己的实例，同一线程重复格式化时不再创建对象。
+ * 缓存的实例只在这里使用，交给调用方的是它的副本。
+ */
+public final class DateFormats {
+
+    private static final int TYPE_COUNT = DatePickerType.TYPE_DATE_HM + 1;
+    /**
+     * 每个线程缓存的 Locale 数目，超出时丢弃最久未用的
+     */
+    private static final int MAX_CACHED_LOCALES = 4;
+
+    private static final ThreadLocal<Formats> FORMATS = new ThreadLocal<Formats>() {
+        @Override
+        protected Formats initialValue() {
+            return new Formats();
+        }
+    };
+
+    private DateFormats() {
+    }
+
+    /**
+     * 获取类型对应的格式
+     *
+     * @param type the date picker type
+     * @return the pattern
+     */
+    @NonNull
+    public static String getPattern(@DatePickerType int type) {
+        switch (type) {
+            case DatePickerType.TYPE_HM:
+                return "HH:mm";
+            case DatePickerType.TYPE_YMDHM:
+            case DatePickerType.TYPE_DATE_HM:
+                return "yyyy-MM-dd HH:mm";
+            case DatePickerType.TYPE_YMDH:
+                return "yyyy-MM-dd HH";
+            case DatePickerType.TYPE_YMD:
+                return "yyyy-MM-dd";
+            case DatePickerType.TYPE_YM:
+                return "yyyy-MM";
+            case DatePickerType.TYPE_Y:
+                return "yyyy";
+            default:
+                return "yyyy-MM-dd HH:mm";
+        }
+    }
+
+    /**
+     * 复制当前线程缓存的格式化实例，比重新解析格式快。返回值归调用方所有，可以修改或交给其他线程
+     *
+     * @param type   the date picker type
+     * @param locale the locale
+     * @return a new date format
+     */
+    @NonNull
+    public static DateFormat newFormat(@DatePickerType int type, @NonNull Locale locale) {
+        return (DateFormat) FORMATS.get().get(type, locale).clone();
+    }
+
+    /**
+     * 使用当前线程缓存的实例格式化日期，结果追加到 out
+     *
+     * @param type   the date picker type
+     * @param locale the locale
+     * @param millis the epoch millis
+     * @param out    the output
+     */
+    public static void format(@DatePickerType int type, @NonNull Locale locale, long millis, @NonNull StringBuilder out) {
+        Formats formats = FORMATS.get();
+        SimpleDateFormat format = formats.get(type, locale);
+        formats.date.setTime(millis);
+        formats.buffer.setLength(0);
+        format.format(formats.date, formats.buffer, formats.position);
+        out.append(formats.buffer);
+    }
+
+    /**
+     * 不经过 SimpleDateFormat，直接以 ASCII 数字将日期字段追加到 out
+     *
+     * @param type   the date picker type
+     * @param year   年
+     * @param month  月，1 - 12
+     * @param day    日
+     * @param hour   时，0 - 23
+     * @param minute 分
+     * @param out    the output
+     */
+    public static void format(@DatePickerType int type, int year, int month, int day, int hour, int minute,
+                              @NonNull Appendable out) throws IOException {
+        switch (type) {
+            case DatePickerType.TYPE_HM:
+                appendTime(hour, minute, out);
+                break;
+            case DatePickerType.TYPE_YMDH:
+                appendDate(year, month, day, out);
+                out.append(' ');
+                appendInt(hour, 2, out);
+                break;
+            case DatePickerType.TYPE_YMD:
+                appendDate(year, month, day, out);
+                break;
+            case DatePickerType.TYPE_YM:
+                appendInt(year, 4, out);
+                out.append('-');
+                appendInt(month, 2, out);
+                break;
+            case DatePickerType.TYPE_Y:
+                appendInt(year, 4, out);
+                break;
+            case DatePickerType.TYPE_YMDHM:
+            default:
+                appendDate(year, month, day, out);
+                out.append(' ');
+                appendTime(hour, minute, out);
+                break;
+        }
+    }
+
+    private static void appendDate(int year, int month, int day, Appendable out) throws IOException {
+        appendInt(year, 4, out);
+        out.append('-');
+        appendInt(month, 2, out);
+        out.append('-');
+        appendInt(day, 2, out);
+    }
+
+    private static void appendTime(int hour, int minute, Appendable out) throws IOException {
+        appendInt(hour, 2, out);
+        out.append(':');
+        appendInt(minute, 2, out);
+    }
+
+    private static void appendInt(int value, int width, Appendable out) throws IOException {
+        char[] digits = FORMATS.get().digits;
+        int length = Utils.formatInt(value, width, digits);
+        for (int i = 0; i < length; i++) {
+            out.append(digits[i]);
+        }
+    }
+
+    /**
+     * 单个线程持有的格式化实例
+     */
+    private static final class Formats {
+        /**
+         * 按 Locale 和类型缓存的实例，最近使用的在最后
+         */
+        final Map<Locale, SimpleDateFormat[]> formats =
+                new LinkedHashMap<Locale, SimpleDateFormat[]>(MAX_CACHED_LOCALES + 1, 1f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Locale, SimpleDateFormat[]> eldest) {
+                        return size() > MAX_CACHED_LOCALES;
+                    }
+                };
+        final Date date = new Date();
+        final StringBuffer buffer = new StringBuffer();
+        final FieldPosition position = new FieldPosition(0);
+        final char[] digits = new char[Utils.MAX_INT_CHARS];
+
+        SimpleDateFormat get(int type, Locale locale) {
+            int index = type > 0 && type < TYPE_COUNT ? type : DatePickerType.TYPE_YMDHM;
+            SimpleDateFormat[] byType = formats.get(locale);
+            if (byType == null) {
+                byType = new SimpleDateFormat[TYPE_COUNT];
+                formats.put(locale, byType);
+            }
+            SimpleDateFormat format = byType[index];
+            if (format == null) {
+                format = new SimpleDateFormat(getPattern(index), locale);
+                byType[index] = format;
+            }
+            return format;
+        }
+    }
+}
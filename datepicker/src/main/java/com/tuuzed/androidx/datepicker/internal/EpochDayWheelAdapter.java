@@ -0,0 +1,151 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.database.DataSetObservable;
+import android.database.DataSetObserver;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Wheel adapter with one item per day, such as "Mon 18 Oct 2026".
+ * <p>
+ * Labels are formatted on demand and kept in a small cache indexed by day,
+ * so the memory used does not depend on the number of days in the range
+ * and the cache stays valid when the range moves.
+ */
+public class EpochDayWheelAdapter implements WheelView.ObservableWheelAdapter {
+
+    /**
+     * The default label pattern
+     */
+    public static final String DEFAULT_PATTERN = "EEE d MMM yyyy";
+
+    /**
+     * The size of the label cache, must be a power of two
+     */
+    private static final int CACHE_SIZE = 64;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    // Values
+    private int minEpochDay;
+    private int maxEpochDay;
+
+    // Formatting, epoch days are formatted as UTC midnights
+    private final SimpleDateFormat format;
+    private final Date date = new Date();
+
+    // Labels indexed by slot and the day held by each slot
+    private final String[] labels = new String[CACHE_SIZE];
+    private final long[] cachedDays = new long[CACHE_SIZE];
+
+    private final DataSetObservable dataSetObservable = new DataSetObservable();
+
+    /**
+     * Constructor
+     *
+     * @param minEpochDay the first day, days since 1970-01-01
+     * @param maxEpochDay the last day, days since 1970-01-01
+     */
+    public EpochDayWheelAdapter(int minEpochDay, int maxEpochDay) {
+        this(minEpochDay, maxEpochDay, DEFAULT_PATTERN, Locale.getDefault());
+    }
+
+    /**
+     * Constructor
+     *
+     * @param minEpochDay the first day, days since 1970-01-01
+     * @param maxEpochDay the last day, days since 1970-01-01
+     * @param pattern     the SimpleDateFormat pattern of the labels
+     * @param locale      the locale of the labels
+     */
+    public EpochDayWheelAdapter(int minEpochDay, int maxEpochDay, String pattern, Locale locale) {
+        this.minEpochDay = minEpochDay;
+        this.maxEpochDay = maxEpochDay;
+        format = new SimpleDateFormat(pattern, locale);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    @Override
+    public int getItemsCount() {
+        if (maxEpochDay < minEpochDay) {
+            return 0;
+        }
+        return maxEpochDay - minEpochDay + 1;
+    }
+
+    @Override
+    public String getItem(int index) {
+        if (index >= 0 && index < getItemsCount()) {
+            long epochDay = getEpochDay(index);
+            int slot = (int) epochDay & (CACHE_SIZE - 1);
+            if (cachedDays[slot] != epochDay || labels[slot] == null) {
+                cachedDays[slot] = epochDay;
+                date.setTime(epochDay * MILLIS_PER_DAY);
+                labels[slot] = format.format(date);
+            }
+            return labels[slot];
+        }
+        return null;
+    }
+
+    /**
+     * Labels differ in length by locale and day, so the wheel measures the visible ones.
+     *
+     * @return -1
+     */
+    @Override
+    public int getMaximumLength() {
+        return -1;
+    }
+
+    /**
+     * Gets the day of an item.
+     *
+     * @param index the item index
+     * @return days since 1970-01-01
+     */
+    public long getEpochDay(int index) {
+        return (long) minEpochDay + index;
+    }
+
+    public int getMinEpochDay() {
+        return minEpochDay;
+    }
+
+    public int getMaxEpochDay() {
+        return maxEpochDay;
+    }
+
+    /**
+     * Sets the range in place, keeping the formatter and the cached labels.
+     *
+     * @param minEpochDay the first day, days since 1970-01-01
+     * @param maxEpochDay the last day, days since 1970-01-01
+     */
+    public void setRange(int minEpochDay, int maxEpochDay) {
+        if (minEpochDay == this.minEpochDay && maxEpochDay == this.maxEpochDay) {
+            return;
+        }
+        boolean shifted = minEpochDay != this.minEpochDay;
+        this.minEpochDay = minEpochDay;
+        this.maxEpochDay = maxEpochDay;
+        if (shifted) {
+            dataSetObservable.notifyInvalidated();
+        } else {
+            dataSetObservable.notifyChanged();
+        }
+    }
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        dataSetObservable.registerObserver(observer);
+    }
+
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        dataSetObservable.unregisterObserver(observer);
+    }
+}
@@ -1,10 +1,17 @@
 package com.tuuzed.androidx.datepicker.internal;
 
+import android.database.DataSetObservable;
+import android.database.DataSetObserver;
+
+import java.util.Arrays;
 
 /**
  * Numeric Wheel adapter.
+ * <p>
+ * Items are minValue, minValue + step, ... up to maxValue, so a 15 minute
+ * wheel over 0..59 has 4 items. Values and indices map arithmetically.
  */
-public class NumericWheelAdapter implements WheelView.WheelAdapter {
+public class NumericWheelAdapter implements WheelView.IntWheelAdapter, WheelView.ObservableWheelAdapter {
 
     /**
      * The default min value
@@ -16,13 +23,34 @@ public class NumericWheelAdapter implements WheelView.WheelAdapter {
      */
     private static final int DEFAULT_MIN_VALUE = 0;
 
+    /**
+     * Ranges with at most this many items keep every label in a table
+     */
+    private static final int MAX_TABLE_SIZE = 1024;
+
+    /**
+     * The size of the label cache used by wider ranges, must be a power of two
+     */
+    private static final int CACHE_SIZE = 64;
+
     // Values
     private int minValue;
     private int maxValue;
+    private int step = 1;
 
     // format
     private String format;
 
+    // Labels, either a table indexed by item or a cache indexed by slot
+    private String[] labels;
+    // The item held by each cache slot, null when labels is a table
+    private int[] cachedIndices;
+    private int maximumLength;
+    // The zero padded width when the format only pads digits, otherwise -1
+    private int minimumWidth;
+
+    private final DataSetObservable dataSetObservable = new DataSetObservable();
+
     /**
      * Default constructor
      */
@@ -48,29 +76,215 @@ public class NumericWheelAdapter implements WheelView.WheelAdapter {
      * @param format   the format string
      */
     public NumericWheelAdapter(int minValue, int maxValue, String format) {
+        this(minValue, maxValue, 1, format);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param minValue the wheel min value
+     * @param maxValue the wheel max value, the last item is the largest step not above it
+     * @param step     the difference between adjacent items, must be positive
+     * @param format   the format string
+     */
+    public NumericWheelAdapter(int minValue, int maxValue, int step, String format) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive: " + step);
+        }
         this.minValue = minValue;
         this.maxValue = maxValue;
+        this.step = step;
         this.format = format;
+        allocateLabels(getItemsCount());
+        maximumLength = computeMaximumLength();
+        minimumWidth = parseMinimumWidth(format);
+    }
+
+    /**
+     * Changes the range in place. Labels already created are kept, and nothing
+     * happens when the range is the same.
+     *
+     * @param minValue the wheel min value
+     * @param maxValue the wheel max value
+     */
+    public void setRange(int minValue, int maxValue) {
+        setRange(minValue, maxValue, step);
+    }
+
+    /**
+     * Changes the range and the step in place. Labels already created are kept as long as
+     * the step is unchanged, and nothing happens when nothing changes.
+     *
+     * @param minValue the wheel min value
+     * @param maxValue the wheel max value
+     * @param step     the difference between adjacent items, must be positive
+     */
+    public void setRange(int minValue, int maxValue, int step) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("step must be positive: " + step);
+        }
+        if (this.minValue == minValue && this.maxValue == maxValue && this.step == step) {
+            return;
+        }
+        boolean labelsValid = this.minValue == minValue && this.step == step;
+        // A table keeps its labels when the min value moves by whole steps
+        long shift = ((long) minValue - this.minValue) / step;
+        boolean shiftable = this.step == step && shift * step == (long) minValue - this.minValue;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+        this.step = step;
+        int count = getItemsCount();
+        boolean table = count <= MAX_TABLE_SIZE;
+        if (table && cachedIndices == null && shiftable && !labelsValid) {
+            shiftLabels(shift, count);
+        } else if (table != (cachedIndices == null) || (table && labels.length < count)) {
+            allocateLabels(count);
+        } else if (!labelsValid) {
+            Arrays.fill(labels, null);
+        }
+        maximumLength = computeMaximumLength();
+        if (labelsValid) {
+            dataSetObservable.notifyChanged();
+        } else {
+            dataSetObservable.notifyInvalidated();
+        }
+    }
+
+    /**
+     * Moves the labels of a table so that the item at index i + shift becomes the item at index i.
+     */
+    private void shiftLabels(long shift, int count) {
+        String[] old = labels;
+        String[] table = old.length >= count ? old : new String[count];
+        if (shift >= old.length || -shift >= old.length) {
+            Arrays.fill(table, null);
+        } else if (shift > 0) {
+            for (int i = 0; i < table.length; i++) {
+                int j = i + (int) shift;
+                table[i] = j < old.length ? old[j] : null;
+            }
+        } else {
+            for (int i = table.length - 1; i >= 0; i--) {
+                int j = i + (int) shift;
+                table[i] = j >= 0 && j < old.length ? old[j] : null;
+            }
+        }
+        labels = table;
+    }
+
+    private void allocateLabels(int count) {
+        if (count <= MAX_TABLE_SIZE) {
+            labels = new String[Math.max(count, 0)];
+            cachedIndices = null;
+        } else {
+            labels = new String[CACHE_SIZE];
+            cachedIndices = new int[CACHE_SIZE];
+        }
+    }
+
+    @Override
+    public void registerDataSetObserver(DataSetObserver observer) {
+        dataSetObservable.registerObserver(observer);
+    }
+
+    @Override
+    public void unregisterDataSetObserver(DataSetObserver observer) {
+        dataSetObservable.unregisterObserver(observer);
+    }
+
+    /**
+     * Parses the padded width of "%d" and "%0Nd" formats.
+     *
+     * @param format the format string
+     * @return the padded width or -1 for other formats
+     */
+    private static int parseMinimumWidth(String format) {
+        if (format == null || "%d".equals(format)) {
+            return 0;
+        }
+        int length = format.length();
+        if (length < 4 || !format.startsWith("%0") || format.charAt(length - 1) != 'd') {
+            return -1;
+        }
+        int width = 0;
+        for (int i = 2; i < length - 1; i++) {
+            char c = format.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            width = width * 10 + (c - '0');
+        }
+        return width;
     }
 
     @Override
     public String getItem(int index) {
         if (index >= 0 && index < getItemsCount()) {
-            int value = minValue + index;
-            return format != null ? String.format(format, value) : Integer.toString(value);
+            int slot = index;
+            if (cachedIndices != null) {
+                slot = index & (CACHE_SIZE - 1);
+                if (cachedIndices[slot] != index) {
+                    cachedIndices[slot] = index;
+                    labels[slot] = null;
+                }
+            }
+            String label = labels[slot];
+            if (label == null) {
+                label = formatValue(getValue(index));
+                labels[slot] = label;
+            }
+            return label;
         }
         return null;
     }
 
+    private String formatValue(int value) {
+        return format != null ? String.format(format, value) : Integer.toString(value);
+    }
+
+    @Override
+    public int getValue(int index) {
+        return minValue + index * step;
+    }
+
+    /**
+     * Gets the index of the item with the largest value not above the given value.
+     *
+     * @param value the value
+     * @return the item index, or -1 if the value is outside of the range
+     */
+    public int indexOf(int value) {
+        if (value < minValue || value > maxValue) {
+            return -1;
+        }
+        return (int) (((long) value - minValue) / step);
+    }
+
+    @Override
+    public int getMinimumWidth() {
+        return minimumWidth;
+    }
+
     @Override
     public int getItemsCount() {
-        return maxValue - minValue + 1;
+        if (maxValue < minValue) {
+            return 0;
+        }
+        return (int) (((long) maxValue - minValue) / step + 1);
     }
 
     @Override
     public int getMaximumLength() {
-        int max = Math.max(Math.abs(maxValue), Math.abs(minValue));
-        int maxLen = format != null ? Integer.toString(max).length() + format.length() : Integer.toString(max).length();
+        return maximumLength;
+    }
+
+    private int computeMaximumLength() {
+        long max = Math.max(Math.abs((long) maxValue), Math.abs((long) minValue));
+        int digits = 1;
+        for (long v = max / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        int maxLen = format != null ? digits + format.length() : digits;
         if (minValue < 0) {
             maxLen++;
         }
@@ -84,4 +298,8 @@ public class NumericWheelAdapter implements WheelView.WheelAdapter {
     public int getMinValue() {
         return minValue;
     }
+
+    public int getStep() {
+        return step;
+    }
 }
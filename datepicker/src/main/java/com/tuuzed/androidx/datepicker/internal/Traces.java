@@ -0,0 +1,60 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.annotation.SuppressLint;
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * 在 systrace/Perfetto 中标出选择器测量、绘制、滚动和更新的耗时。
+ * <p>
+ * 默认关闭，关闭时每个区段只读取一次静态变量。API 18 以下没有 {@link Trace}，开启也不做任何事。
+ * 区段必须成对使用，中途开关不会使区段失衡：
+ * <pre>
+ * boolean traced = Traces.begin("WheelView.onDraw");
+ * ...
+ * Traces.end(traced);
+ * </pre>
+ */
+public final class Traces {
+
+    private static boolean sEnabled;
+
+    private Traces() {
+    }
+
+    /**
+     * 开启或关闭区段，只能在主线程调用
+     */
+    public static void setEnabled(boolean enabled) {
+        sEnabled = enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+    }
+
+    public static boolean isEnabled() {
+        return sEnabled;
+    }
+
+    /**
+     * 开始一个区段
+     *
+     * @param name 区段名称，使用常量以免拼接字符串
+     * @return 是否开始了区段，传给 {@link #end(boolean)}
+     */
+    @SuppressLint("NewApi")
+    public static boolean begin(String name) {
+        if (sEnabled) {
+            Trace.beginSection(name);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 结束 {@link #begin(String)} 开始的区段
+     */
+    @SuppressLint("NewApi")
+    public static void end(boolean traced) {
+        if (traced) {
+            Trace.endSection();
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package com.tuuzed.androidx.datepicker.internal;
 
+import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.Build;
+import android.view.View;
 import androidx.annotation.ColorInt;
 import androidx.annotation.IntRange;
 
-import java.util.Calendar;
-
 public final class Utils {
+    /**
+     * int 转换为十进制字符后的最大长度
+     */
+    public static final int MAX_INT_CHARS = 11;
+    /**
+     * 低版本上没有vsync回调时使用的帧间隔
+     */
+    private static final long FALLBACK_FRAME_DELAY = 10;
+
     /**
      * 根据手机的分辨率从 dp 的单位 转成为 px(像素)
      */
@@ -47,13 +57,97 @@ public final class Utils {
      * @return 最后一天
      */
     public static int getLastDayByYearMonth(int year, int month) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.YEAR, year);
-        calendar.set(Calendar.MONTH, month - 1);
-        calendar.set(Calendar.DATE, 1);
-        return calendar.getActualMaximum(Calendar.DATE);
+        return CalendarMath.getDaysInMonth(year, month);
+    }
+
+
+    /**
+     * 将整数以十进制写入字符缓冲区，不足 width 时在符号后补 0
+     *
+     * @param value  整数
+     * @param width  补 0 后的最小宽度，包含符号
+     * @param buffer 字符缓冲区，长度不小于 max(width, MAX_INT_CHARS)
+     * @return 写入的字符数
+     */
+    public static int formatInt(int value, int width, char[] buffer) {
+        return formatInt(value, width, buffer, 0);
+    }
+
+    /**
+     * 将整数以十进制写入字符缓冲区的指定位置，同 {@link #formatInt(int, int, char[])}
+     *
+     * @param offset 写入的起始位置，之后至少留出 max(width, MAX_INT_CHARS) 个字符
+     * @return 写入的字符数
+     */
+    public static int formatInt(int value, int width, char[] buffer, int offset) {
+        int length = offset;
+        if (value < 0) {
+            buffer[length++] = '-';
+        }
+        int digits = 1;
+        for (int v = value / 10; v != 0; v /= 10) {
+            digits++;
+        }
+        while (length - offset + digits < width) {
+            buffer[length++] = '0';
+        }
+        int end = length + digits;
+        int v = value;
+        for (int i = end - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + Math.abs(v % 10));
+            v /= 10;
+        }
+        return end - offset;
     }
 
+    /**
+     * 将滚轮的行位置转换为适配器中的index
+     *
+     * @param index  行位置，循环时可以超出范围
+     * @param count  item数目
+     * @param cyclic 是否循环
+     * @return 适配器中的index，没有对应的item时返回 -1
+     */
+    public static int getItemIndex(int index, int count, boolean cyclic) {
+        if (count <= 0) {
+            return -1;
+        }
+        if (index >= 0 && index < count) {
+            return index;
+        }
+        if (!cyclic) {
+            return -1;
+        }
+        index %= count;
+        return index < 0 ? index + count : index;
+    }
+
+    /**
+     * 向负无穷取整的除法，divisor 必须为正数
+     */
+    public static int floorDiv(int dividend, int divisor) {
+        int quotient = dividend / divisor;
+        return dividend < 0 && quotient * divisor != dividend ? quotient - 1 : quotient;
+    }
+
+    /**
+     * 将 long 限制在 int 的范围内
+     */
+    public static int clampToInt(long value) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(value, Integer.MAX_VALUE));
+    }
+
+    /**
+     * 在下一帧执行。API 16 及以上跟随 vsync，之前的版本延迟一个近似的帧间隔
+     */
+    @SuppressLint("NewApi")
+    public static void postOnAnimation(View view, Runnable action) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+            view.postOnAnimation(action);
+        } else {
+            view.postDelayed(action, FALLBACK_FRAME_DELAY);
+        }
+    }
 
     @ColorInt
     public static int getAlphaColor(@ColorInt int color, @IntRange(from = 0, to = 255) int alpha) {
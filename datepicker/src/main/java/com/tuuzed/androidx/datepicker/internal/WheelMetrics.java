@@ -0,0 +1,116 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+/**
+ * 滚轮运行时的计数，用于上报到自己的统计系统。
+ * <p>
+ * 通过 {@link WheelView#setMetrics(WheelMetrics)} 或
+ * {@link com.tuuzed.androidx.datepicker.DatePicker#setMetrics(WheelMetrics)} 启用，
+ * 未设置时每个计数点只有一次判空。多个滚轮可以共用一个实例，只能在主线程使用。
+ * 需要逐次上报惯性滚动时覆盖 {@link #onFlingFinished(int, long, int)}
+ */
+public class WheelMetrics {
+
+    private int flingCount;
+    private long flingFrames;
+    private long flingDurationMillis;
+    private long flingItems;
+    private int rowRebuilds;
+    private int measurePasses;
+    private int adapterSwaps;
+    private int listenerDispatches;
+
+    /**
+     * 一次惯性滚动结束，包括随后的对齐，或被新的触摸打断
+     *
+     * @param frames         滚动期间绘制的帧数
+     * @param durationMillis 滚动持续的时间
+     * @param items          滚过的item数
+     */
+    protected void onFlingFinished(int frames, long durationMillis, int items) {
+    }
+
+    public final void recordFling(int frames, long durationMillis, int items) {
+        flingCount++;
+        flingFrames += frames;
+        flingDurationMillis += durationMillis;
+        flingItems += items;
+        onFlingFinished(frames, durationMillis, items);
+    }
+
+    /**
+     * 读取并测量一个可见行
+     */
+    public final void recordRowRebuild() {
+        rowRebuilds++;
+    }
+
+    public final void recordMeasurePass() {
+        measurePasses++;
+    }
+
+    public final void recordAdapterSwap() {
+        adapterSwaps++;
+    }
+
+    /**
+     * 回调一次监听器
+     */
+    public final void recordListenerDispatch() {
+        listenerDispatches++;
+    }
+
+    public int getFlingCount() {
+        return flingCount;
+    }
+
+    /**
+     * @return 全部惯性滚动绘制的帧数之和
+     */
+    public long getFlingFrames() {
+        return flingFrames;
+    }
+
+    /**
+     * @return 全部惯性滚动持续的时间之和，单位ms
+     */
+    public long getFlingDurationMillis() {
+        return flingDurationMillis;
+    }
+
+    /**
+     * @return 全部惯性滚动滚过的item数之和
+     */
+    public long getFlingItems() {
+        return flingItems;
+    }
+
+    public int getRowRebuilds() {
+        return rowRebuilds;
+    }
+
+    public int getMeasurePasses() {
+        return measurePasses;
+    }
+
+    public int getAdapterSwaps() {
+        return adapterSwaps;
+    }
+
+    public int getListenerDispatches() {
+        return listenerDispatches;
+    }
+
+    /**
+     * 清零全部计数，通常在上报之后调用
+     */
+    public void reset() {
+        flingCount = 0;
+        flingFrames = 0;
+        flingDurationMillis = 0;
+        flingItems = 0;
+        rowRebuilds = 0;
+        measurePasses = 0;
+        adapterSwaps = 0;
+        listenerDispatches = 0;
+    }
+}
@@ -0,0 +1,239 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.graphics.Canvas;
+import android.text.TextPaint;
+
+/**
+ * 滚轮可见行的缓存和绘制，位置变化时只读取并测量新进入可见区域的行。
+ * 由 {@link WheelView} 和多列的 {@link com.tuuzed.androidx.datepicker.CompactDatePicker} 共用
+ */
+public final class WheelRows {
+    /**
+     * WheelAdapter
+     */
+    private WheelView.WheelAdapter adapter;
+    /**
+     * 以数字绘制的适配器，为null时使用getItem返回的文本
+     */
+    private WheelView.IntWheelAdapter intAdapter;
+    /**
+     * 每行数字占用的字符数
+     */
+    private int digitStride;
+    /**
+     * 是否循环
+     */
+    private boolean cyclic;
+    /**
+     * 可见行对应的item，-1表示空行
+     */
+    private int[] rowItems;
+    /**
+     * 可见行的文本缓存
+     */
+    private String[] rowTexts;
+    /**
+     * 可见行的文本宽度缓存
+     */
+    private float[] rowWidths;
+    /**
+     * 以数字绘制时可见行的字符缓存，第 row 行从 row * digitStride 开始，绘制时不再格式化
+     */
+    private char[] rowDigits;
+    /**
+     * 可见行的字符数
+     */
+    private int[] rowLengths;
+    /**
+     * 行缓存中第一行对应的item位置
+     */
+    private int firstPosition;
+    /**
+     * 行缓存是否有效
+     */
+    private boolean valid;
+    /**
+     * 运行时计数，为null时不计数
+     */
+    private WheelMetrics metrics;
+
+    public WheelView.WheelAdapter getAdapter() {
+        return adapter;
+    }
+
+    public void setMetrics(WheelMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setAdapter(WheelView.WheelAdapter adapter) {
+        this.adapter = adapter;
+        this.intAdapter = null;
+        if (adapter instanceof WheelView.IntWheelAdapter) {
+            WheelView.IntWheelAdapter intAdapter = (WheelView.IntWheelAdapter) adapter;
+            int width = intAdapter.getMinimumWidth();
+            if (width >= 0) {
+                this.intAdapter = intAdapter;
+                digitStride = Math.max(digitStride, Math.max(width, Utils.MAX_INT_CHARS));
+            }
+        }
+        valid = false;
+    }
+
+    public void setCyclic(boolean cyclic) {
+        this.cyclic = cyclic;
+        valid = false;
+    }
+
+    /**
+     * 使行缓存无效
+     */
+    public void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * 将行位置转换为适配器中的index，循环时回绕
+     *
+     * @param position 行位置
+     * @return the adapter index or -1
+     */
+    public int getItemIndex(int position) {
+        if (adapter == null) {
+            return -1;
+        }
+        return Utils.getItemIndex(position, adapter.getItemsCount(), cyclic);
+    }
+
+    /**
+     * 适配器范围变化而文本不变时，只重新读取index变化的行
+     *
+     * @param paint 测量用的画笔
+     */
+    public void refreshChangedRows(TextPaint paint) {
+        if (!valid) {
+            return;
+        }
+        for (int row = 0; row < rowItems.length; row++) {
+            if (rowItems[row] != getItemIndex(firstPosition + row)) {
+                fillRow(row, paint);
+            }
+        }
+    }
+
+    /**
+     * 更新可见行的缓存
+     *
+     * @param position     当前位置
+     * @param visibleCount 可见item的数目
+     * @param paint        测量用的画笔
+     */
+    public void update(int position, int visibleCount, TextPaint paint) {
+        int addItems = visibleCount / 2 + 1;
+        int rowCount = addItems * 2 + 1;
+        if (rowTexts == null || rowTexts.length != rowCount) {
+            rowItems = new int[rowCount];
+            rowTexts = new String[rowCount];
+            rowWidths = new float[rowCount];
+            rowLengths = new int[rowCount];
+            valid = false;
+        }
+        if (intAdapter != null && (rowDigits == null || rowDigits.length < rowCount * digitStride)) {
+            rowDigits = new char[rowCount * digitStride];
+            valid = false;
+        }
+        int first = position - addItems;
+        if (valid && first == firstPosition) {
+            return;
+        }
+        int shift = first - firstPosition;
+        firstPosition = first;
+        if (valid && shift > 0 && shift < rowCount) {
+            System.arraycopy(rowItems, shift, rowItems, 0, rowCount - shift);
+            System.arraycopy(rowTexts, shift, rowTexts, 0, rowCount - shift);
+            System.arraycopy(rowWidths, shift, rowWidths, 0, rowCount - shift);
+            System.arraycopy(rowLengths, shift, rowLengths, 0, rowCount - shift);
+            if (intAdapter != null) {
+                System.arraycopy(rowDigits, shift * digitStride, rowDigits, 0, (rowCount - shift) * digitStride);
+            }
+            for (int row = rowCount - shift; row < rowCount; row++) {
+                fillRow(row, paint);
+            }
+        } else if (valid && shift < 0 && -shift < rowCount) {
+            System.arraycopy(rowItems, 0, rowItems, -shift, rowCount + shift);
+            System.arraycopy(rowTexts, 0, rowTexts, -shift, rowCount + shift);
+            System.arraycopy(rowWidths, 0, rowWidths, -shift, rowCount + shift);
+            System.arraycopy(rowLengths, 0, rowLengths, -shift, rowCount + shift);
+            if (intAdapter != null) {
+                System.arraycopy(rowDigits, 0, rowDigits, -shift * digitStride, (rowCount + shift) * digitStride);
+            }
+            for (int row = 0; row < -shift; row++) {
+                fillRow(row, paint);
+            }
+        } else {
+            for (int row = 0; row < rowCount; row++) {
+                fillRow(row, paint);
+            }
+        }
+        valid = true;
+    }
+
+    /**
+     * 读取并测量一行
+     *
+     * @param row   行号
+     * @param paint 测量用的画笔
+     */
+    private void fillRow(int row, TextPaint paint) {
+        int index = getItemIndex(firstPosition + row);
+        rowItems[row] = index;
+        if (metrics != null) {
+            metrics.recordRowRebuild();
+        }
+        if (index < 0) {
+            rowTexts[row] = null;
+            rowWidths[row] = 0;
+        } else if (intAdapter != null) {
+            rowTexts[row] = null;
+            int offset = row * digitStride;
+            int length = Utils.formatInt(intAdapter.getValue(index), intAdapter.getMinimumWidth(),
+                    rowDigits, offset);
+            rowLengths[row] = length;
+            rowWidths[row] = paint.measureText(rowDigits, offset, length);
+        } else {
+            String text = adapter.getItem(index);
+            rowTexts[row] = text;
+            rowWidths[row] = text != null ? paint.measureText(text) : 0;
+        }
+    }
+
+    /**
+     * 逐行绘制，需先调用 {@link #update(int, int, TextPaint)}
+     *
+     * @param canvas     the canvas for drawing
+     * @param left       左边界
+     * @param width      行宽
+     * @param alignRight 右对齐，否则居中
+     * @param top        第一行的基线
+     * @param itemHeight 行高
+     * @param itemsPaint item的画笔
+     * @param valuePaint 当前值的画笔
+     */
+    public void draw(Canvas canvas, float left, int width, boolean alignRight, float top, int itemHeight,
+                     TextPaint itemsPaint, TextPaint valuePaint) {
+        int center = rowTexts.length / 2;
+        for (int row = 0; row < rowTexts.length; row++) {
+            int index = rowItems[row];
+            if (index < 0) {
+                continue;
+            }
+            TextPaint paint = row == center ? valuePaint : itemsPaint;
+            float x = left + (alignRight ? width - rowWidths[row] : (width - rowWidths[row]) / 2);
+            float y = top + row * itemHeight;
+            if (intAdapter != null) {
+                canvas.drawText(rowDigits, row * digitStride, rowLengths[row], x, y, paint);
+            } else if (rowTexts[row] != null) {
+                canvas.drawText(rowTexts[row], x, y, paint);
+            }
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.os.SystemClock;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.animation.Interpolator;
+import android.widget.Scroller;
+
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * 一个滚轮的拖动、惯性滚动、对齐和动画帧。
+ * {@link WheelView} 每个滚轮一个，{@link com.tuuzed.androidx.datepicker.CompactDatePicker} 每列一个，
+ * item的数目、位置和高度由 {@link Host} 提供
+ */
+public final class WheelScroller {
+    /**
+     * 滚动持续的时间
+     */
+    public static final int SCROLLING_DURATION = 300;
+    /**
+     * 最少滚动的位置
+     */
+    private static final int MIN_DELTA_FOR_SCROLLING = 1;
+
+    // Animations
+    private static final int ANIMATION_NONE = 0;
+    private static final int ANIMATION_SCROLL = 1;
+    private static final int ANIMATION_JUSTIFY = 2;
+
+    /**
+     * 滚轮所在的 View，动画帧安排在它上面
+     */
+    private final View view;
+    private final Host host;
+    /**
+     * 手势侦测对象
+     */
+    private final GestureDetector gestureDetector;
+    private Scroller scroller;
+    private int lastScrollY;
+    /**
+     * 滚动动作是否执行
+     */
+    private boolean isScrollingPerformed;
+    /**
+     * 滚动偏移量
+     */
+    private int scrollingOffset;
+    /**
+     * 当前执行中的动画
+     */
+    private int animation = ANIMATION_NONE;
+    /**
+     * 运行时计数，为null时不计数
+     */
+    private WheelMetrics metrics;
+    // 进行中的惯性滚动，只在计数时记录
+    private boolean flingTracked;
+    private long flingStartTime;
+    private int flingFrames;
+    private int flingItems;
+
+    public WheelScroller(View view, Host host) {
+        this.view = view;
+        this.host = host;
+        gestureDetector = new GestureDetector(view.getContext(), gestureListener);
+        gestureDetector.setIsLongpressEnabled(false);// 设置手势长按不起作用
+        scroller = new Scroller(view.getContext());
+    }
+
+    /**
+     * 设置指定的滚轮动画变化率
+     */
+    public void setInterpolator(Interpolator interpolator) {
+        setScroller(new Scroller(view.getContext(), interpolator));
+    }
+
+    /**
+     * 替换滚动使用的 Scroller，测试中代替 Robolectric 不移动的 fling
+     */
+    @VisibleForTesting
+    void setScroller(Scroller scroller) {
+        this.scroller.forceFinished(true);
+        this.scroller = scroller;
+    }
+
+    /**
+     * 设置运行时计数
+     *
+     * @param metrics 为null时停止计数
+     */
+    public void setMetrics(WheelMetrics metrics) {
+        this.metrics = metrics;
+        flingTracked = false;
+    }
+
+    /**
+     * 是否正在滚动，包括拖动、惯性滚动和对齐
+     */
+    public boolean isScrolling() {
+        return isScrollingPerformed;
+    }
+
+    /**
+     * 是否有已安排的动画帧
+     */
+    public boolean isAnimating() {
+        return animation != ANIMATION_NONE;
+    }
+
+    /**
+     * 当前item相对于中间位置的偏移
+     */
+    public int getOffset() {
+        return scrollingOffset;
+    }
+
+    /**
+     * 以代码改变了位置或适配器，当前item回到中间
+     */
+    public void resetOffset() {
+        scrollingOffset = 0;
+    }
+
+    /**
+     * 处理一次手势中的触摸事件，抬起或取消时对齐
+     */
+    public void onTouchEvent(MotionEvent event) {
+        int action = event.getActionMasked();
+        // 父 View 拦截手势时收到 CANCEL，与抬起一样对齐，否则滚动永远不会结束
+        if (!gestureDetector.onTouchEvent(event) && (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL)) {
+            justify();
+        }
+    }
+
+    /**
+     * 绘制了一帧，惯性滚动期间计入帧数
+     */
+    public void onFrameDrawn() {
+        if (flingTracked) {
+            flingFrames++;
+        }
+    }
+
+    /**
+     * 以动画滚过指定数目的item
+     *
+     * @param itemsToScroll 滚过的item数，负数向前
+     * @param time          动画时长
+     */
+    public void scroll(int itemsToScroll, int time) {
+        scroller.forceFinished(true);
+
+        lastScrollY = scrollingOffset;
+
+        int offset = Utils.clampToInt((long) itemsToScroll * host.getItemHeight());
+
+        scroller.startScroll(0, lastScrollY, 0, offset - lastScrollY, time);
+        scheduleAnimation(ANIMATION_SCROLL);
+
+        startScrolling();
+    }
+
+    /**
+     * 立即停止拖动、惯性滚动和对齐，停在当前item上
+     */
+    public void stopScrolling() {
+        scroller.forceFinished(true);
+        cancelAnimation();
+        finishScrolling();
+    }
+
+    /**
+     * 滚动滚轮
+     *
+     * @param delta the scrolling value
+     */
+    private void doScroll(int delta) {
+        boolean traced = Traces.begin("WheelScroller.doScroll");
+        scrollingOffset += delta;
+
+        int itemHeight = host.getItemHeight();
+        int itemsCount = host.getItemsCount();
+        int position = host.getPosition();
+        int count = scrollingOffset / itemHeight;
+        int pos = position - count;
+        if (host.isCyclic() && itemsCount > 0) {
+            // fix position by rotating
+            pos = Utils.getItemIndex(pos, itemsCount, true);
+        } else if (isScrollingPerformed) {
+            //
+            if (pos < 0) {
+                count = position;
+                pos = 0;
+            } else if (pos >= itemsCount) {
+                count = position - itemsCount + 1;
+                pos = itemsCount - 1;
+            }
+        } else {
+            // fix position
+            pos = Math.max(pos, 0);
+            pos = Math.min(pos, itemsCount - 1);
+        }
+
+        // 宿主改变位置时会重置偏移
+        int offset = scrollingOffset;
+        if (flingTracked) {
+            flingItems += Math.abs(count);
+        }
+        if (pos != position) {
+            host.setScrolledPosition(pos);
+        } else {
+            view.invalidate();
+        }
+
+        // update offset
+        scrollingOffset = offset - count * itemHeight;
+        if (scrollingOffset > view.getHeight()) {
+            scrollingOffset = scrollingOffset % view.getHeight() + view.getHeight();
+        }
+        Traces.end(traced);
+    }
+
+    /**
+     * 惯性滚动的下限。以当前位置为原点，item再多也不会溢出
+     *
+     * @return 滚到第一个item的距离，不大于0
+     */
+    static int getFlingMinY(int position, int offset, int itemHeight) {
+        return Utils.clampToInt(-((long) position * itemHeight - offset));
+    }
+
+    /**
+     * 惯性滚动的上限，计算方式同 {@link #getFlingMinY(int, int, int)}
+     *
+     * @return 滚过最后一个item的距离
+     */
+    static int getFlingMaxY(int itemsCount, int position, int offset, int itemHeight) {
+        return Utils.clampToInt((long) itemsCount * itemHeight - ((long) position * itemHeight - offset));
+    }
+
+    // gesture listener
+    private final GestureDetector.SimpleOnGestureListener gestureListener = new GestureDetector.SimpleOnGestureListener() {
+        public boolean onDown(MotionEvent e) {
+            finishFlingMetrics();
+            if (isScrollingPerformed) {
+                scroller.forceFinished(true);
+                cancelAnimation();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
+            startScrolling();
+            doScroll((int) -distanceY);
+            return true;
+        }
+
+        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
+            lastScrollY = 0;
+            int minY = Integer.MIN_VALUE;
+            int maxY = Integer.MAX_VALUE;
+            if (!host.isCyclic()) {
+                int itemHeight = host.getItemHeight();
+                minY = getFlingMinY(host.getPosition(), scrollingOffset, itemHeight);
+                maxY = getFlingMaxY(host.getItemsCount(), host.getPosition(), scrollingOffset, itemHeight);
+            }
+            scroller.fling(0, 0, 0, (int) -velocityY / 2, 0, 0, minY, maxY);
+            scheduleAnimation(ANIMATION_SCROLL);
+            if (metrics != null) {
+                flingTracked = true;
+                flingStartTime = SystemClock.uptimeMillis();
+                flingFrames = 0;
+                flingItems = 0;
+            }
+            return true;
+        }
+    };
+
+    /**
+     * 在下一帧执行指定的动画，会先取消已安排的帧
+     *
+     * @param animation the animation to run
+     */
+    private void scheduleAnimation(int animation) {
+        cancelAnimation();
+        this.animation = animation;
+        postAnimationFrame();
+    }
+
+    /**
+     * 取消已安排的动画帧
+     */
+    private void cancelAnimation() {
+        view.removeCallbacks(animationFrame);
+        animation = ANIMATION_NONE;
+    }
+
+    /**
+     * 安排下一个动画帧。API 16 及以上跟随 vsync，在 Choreographer 的帧回调中
+     * Scroller 读取到的是该帧的时间戳，因此与屏幕刷新率无关
+     */
+    private void postAnimationFrame() {
+        Utils.postOnAnimation(view, animationFrame);
+    }
+
+    // animation frame
+    private final Runnable animationFrame = new Runnable() {
+        @Override
+        public void run() {
+            if (animation == ANIMATION_NONE) {
+                return;
+            }
+            scroller.computeScrollOffset();
+            int currY = scroller.getCurrY();
+            int delta = lastScrollY - currY;
+            lastScrollY = currY;
+            if (delta != 0) {
+                doScroll(delta);
+            }
+
+            // scrolling is not finished when it comes to final Y
+            // so, finish it manually
+            if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
+                scroller.forceFinished(true);
+            }
+            if (!scroller.isFinished()) {
+                postAnimationFrame();
+            } else if (animation == ANIMATION_SCROLL) {
+                animation = ANIMATION_NONE;
+                justify();
+            } else {
+                animation = ANIMATION_NONE;
+                finishScrolling();
+            }
+        }
+    };
+
+    /**
+     * Justifies wheel
+     */
+    private void justify() {
+        boolean traced = Traces.begin("WheelScroller.justify");
+        lastScrollY = 0;
+        int offset = scrollingOffset;
+        int itemHeight = host.getItemHeight();
+        int position = host.getPosition();
+        boolean needToIncrease = offset > 0 ? position < host.getItemsCount() : position > 0;
+        if ((host.isCyclic() || needToIncrease) && Math.abs((float) offset) > (float) itemHeight / 2) {
+            if (offset < 0)
+                offset += itemHeight + MIN_DELTA_FOR_SCROLLING;
+            else
+                offset -= itemHeight + MIN_DELTA_FOR_SCROLLING;
+        }
+        if (Math.abs(offset) > MIN_DELTA_FOR_SCROLLING) {
+            scroller.startScroll(0, 0, 0, offset, SCROLLING_DURATION);
+            scheduleAnimation(ANIMATION_JUSTIFY);
+        } else {
+            finishScrolling();
+        }
+        Traces.end(traced);
+    }
+
+    /**
+     * 开始滚动
+     */
+    private void startScrolling() {
+        if (!isScrollingPerformed) {
+            isScrollingPerformed = true;
+            host.onScrollingStarted();
+        }
+    }
+
+    /**
+     * 停止滚动
+     */
+    private void finishScrolling() {
+        finishFlingMetrics();
+        if (isScrollingPerformed) {
+            isScrollingPerformed = false;
+            host.onScrollingFinished();
+        }
+        scrollingOffset = 0;
+        view.invalidate();
+    }
+
+    /**
+     * 惯性滚动结束或被打断时上报
+     */
+    private void finishFlingMetrics() {
+        if (flingTracked) {
+            flingTracked = false;
+            if (metrics != null) {
+                metrics.recordFling(flingFrames, SystemClock.uptimeMillis() - flingStartTime, flingItems);
+            }
+        }
+    }
+
+    /**
+     * 滚轮的item和位置
+     */
+    public interface Host {
+        int getItemsCount();
+
+        int getPosition();
+
+        boolean isCyclic();
+
+        int getItemHeight();
+
+        /**
+         * 滚动经过了item，改变当前位置，不需要动画
+         *
+         * @param position 已按是否循环修正过的位置
+         */
+        void setScrolledPosition(int position);
+
+        void onScrollingStarted();
+
+        void onScrollingFinished();
+    }
+}
@@ -0,0 +1,190 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.graphics.Paint;
+import android.graphics.drawable.Drawable;
+import android.text.TextPaint;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+
+/**
+ * 滚轮的外观，代码创建 {@link WheelView} 时代替 xml 属性，可以由多个滚轮共用。
+ * <p>
+ * 画笔按文字大小、颜色和用途在全部样式之间共用，换样式时滚轮只替换引用并重绘。
+ * 共用的画笔创建后不再修改，使用方也不能修改，包括 drawableState。只能在主线程使用
+ */
+public final class WheelStyle {
+
+    // 画笔的用途
+    private static final int ROLE_ITEMS = 0;
+    /**
+     * 当前值和标签，附加阴影
+     */
+    private static final int ROLE_VALUE = 1;
+    private static final int MAX_CACHED_PAINTS = 32;
+    /**
+     * 共用的画笔和它们的 {textSize, color, role}，超出数目时丢弃最早的
+     */
+    private static final ArrayList<TextPaint> sPaints = new ArrayList<>();
+    private static final ArrayList<int[]> sPaintKeys = new ArrayList<>();
+
+    private final int textSize;
+    private final int color;
+    private final int selectColor;
+    private final int visibleCount;
+    @Nullable
+    private final Drawable topShadow;
+    @Nullable
+    private final Drawable bottomShadow;
+    @Nullable
+    private final Drawable selectedBg;
+    // 首次使用时从共用的画笔中取得
+    @Nullable
+    private TextPaint itemsPaint;
+    @Nullable
+    private TextPaint valuePaint;
+
+    /**
+     * @param textSize     文字大小，单位px
+     * @param color        item的颜色
+     * @param selectColor  当前值的颜色
+     * @param visibleCount 可见item的数目
+     */
+    public WheelStyle(int textSize, @ColorInt int color, @ColorInt int selectColor, int visibleCount) {
+        this(textSize, color, selectColor, visibleCount, null, null, null);
+    }
+
+    /**
+     * @param textSize     文字大小，单位px
+     * @param color        item的颜色
+     * @param selectColor  当前值的颜色
+     * @param visibleCount 可见item的数目
+     * @param topShadow    顶部阴影
+     * @param bottomShadow 底部阴影
+     * @param selectedBg   当前值的背景
+     */
+    public WheelStyle(int textSize, @ColorInt int color, @ColorInt int selectColor, int visibleCount,
+                      @Nullable Drawable topShadow, @Nullable Drawable bottomShadow, @Nullable Drawable selectedBg) {
+        this.textSize = textSize;
+        this.color = color;
+        this.selectColor = selectColor;
+        this.visibleCount = visibleCount;
+        this.topShadow = topShadow;
+        this.bottomShadow = bottomShadow;
+        this.selectedBg = selectedBg;
+    }
+
+    public int getTextSize() {
+        return textSize;
+    }
+
+    @ColorInt
+    public int getColor() {
+        return color;
+    }
+
+    @ColorInt
+    public int getSelectColor() {
+        return selectColor;
+    }
+
+    public int getVisibleCount() {
+        return visibleCount;
+    }
+
+    @Nullable
+    public Drawable getTopShadow() {
+        return topShadow;
+    }
+
+    @Nullable
+    public Drawable getBottomShadow() {
+        return bottomShadow;
+    }
+
+    @Nullable
+    public Drawable getSelectedBg() {
+        return selectedBg;
+    }
+
+    /**
+     * item的画笔，与其他样式共用，不要修改
+     */
+    @NonNull
+    public TextPaint getItemsPaint() {
+        if (itemsPaint == null) {
+            itemsPaint = obtainPaint(textSize, color, ROLE_ITEMS);
+        }
+        return itemsPaint;
+    }
+
+    /**
+     * 当前值和标签的画笔，与其他样式共用，不要修改
+     */
+    @NonNull
+    public TextPaint getValuePaint() {
+        if (valuePaint == null) {
+            valuePaint = obtainPaint(textSize, selectColor, ROLE_VALUE);
+        }
+        return valuePaint;
+    }
+
+    /**
+     * @return 只有颜色不同的样式，drawables 共用
+     */
+    @NonNull
+    public WheelStyle withColors(@ColorInt int color, @ColorInt int selectColor) {
+        return new WheelStyle(textSize, color, selectColor, visibleCount, topShadow, bottomShadow, selectedBg);
+    }
+
+    /**
+     * @return 只有文字大小不同的样式，drawables 共用
+     */
+    @NonNull
+    public WheelStyle withTextSize(int textSize) {
+        return new WheelStyle(textSize, color, selectColor, visibleCount, topShadow, bottomShadow, selectedBg);
+    }
+
+    /**
+     * @return 只有可见item数目不同的样式，画笔和 drawables 共用
+     */
+    @NonNull
+    public WheelStyle withVisibleCount(int visibleCount) {
+        WheelStyle style = new WheelStyle(textSize, color, selectColor, visibleCount,
+                topShadow, bottomShadow, selectedBg);
+        style.itemsPaint = itemsPaint;
+        style.valuePaint = valuePaint;
+        return style;
+    }
+
+    /**
+     * 取得共用的画笔，没有时创建
+     */
+    private static TextPaint obtainPaint(int textSize, int color, int role) {
+        for (int i = 0; i < sPaintKeys.size(); i++) {
+            int[] key = sPaintKeys.get(i);
+            if (key[0] == textSize && key[1] == color && key[2] == role) {
+                return sPaints.get(i);
+            }
+        }
+        TextPaint paint;
+        if (role == ROLE_VALUE) {
+            paint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+            paint.setShadowLayer(0.1f, 0, 0.1f, 0xFFC0C0C0);
+        } else {
+            paint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+        }
+        paint.setTextSize(textSize);
+        paint.setColor(color);
+        if (sPaints.size() >= MAX_CACHED_PAINTS) {
+            sPaints.remove(0);
+            sPaintKeys.remove(0);
+        }
+        sPaints.add(paint);
+        sPaintKeys.add(new int[]{textSize, color, role});
+        return paint;
+    }
+}
@@ -4,38 +4,26 @@ package com.tuuzed.androidx.datepicker.internal;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.database.DataSetObserver;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.Rect;
 import android.graphics.drawable.Drawable;
-import android.os.Handler;
-import android.os.Message;
-import android.text.Layout;
-import android.text.StaticLayout;
 import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
-import android.view.GestureDetector;
-import android.view.GestureDetector.SimpleOnGestureListener;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.animation.Interpolator;
 import android.widget.Scroller;
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import com.tuuzed.androidx.datepicker.R;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class WheelView extends View {
-    /**
-     * 滚动持续的时间
-     */
-    private static final int SCROLLING_DURATION = 300;
-    /**
-     * 最少滚动的位置
-     */
-    private static final int MIN_DELTA_FOR_SCROLLING = 1;
     /**
      * 附加的item的高度
      */
@@ -56,10 +44,18 @@ public class WheelView extends View {
      * WheelAdapter
      */
     private WheelAdapter adapter = null;
+    /**
+     * 可见行的缓存
+     */
+    private final WheelRows rows = new WheelRows();
     /**
      * item宽度
      */
     private int itemsWidth = 0;
+    /**
+     * 计算item宽度时使用的最大长度
+     */
+    private int measuredTextLength = 0;
     /**
      * 标签宽度
      */
@@ -76,30 +72,22 @@ public class WheelView extends View {
      * value的字符串属性对象
      */
     private TextPaint valuePaint;
-    // Layouts
-    private StaticLayout itemsLayout, labelLayout, valueLayout;
-    /**
-     * 滚动动作是否执行
-     */
-    private boolean isScrollingPerformed;
     /**
-     * 滚动偏移量
+     * item字体的度量
      */
-    private int scrollingOffset;
+    private final Paint.FontMetricsInt fontMetrics = new Paint.FontMetricsInt();
     /**
-     * 手势侦测对象
+     * 拖动、惯性滚动和对齐
      */
-    private GestureDetector gestureDetector;
-    private Scroller scroller;
-    private int lastScrollY;
+    private WheelScroller scroller;
     /**
      * 实例化OnWheelChangedListener
      */
-    private List<OnWheelChangedListener> changingListeners = new LinkedList<>();
+    private List<OnWheelChangedListener> changingListeners = new ArrayList<>();
     /**
      * 实例化OnWheelScrollListener
      */
-    private List<OnWheelScrollListener> scrollingListeners = new LinkedList<>();
+    private List<OnWheelScrollListener> scrollingListeners = new ArrayList<>();
     /**
      * 当前item位置
      */
@@ -107,8 +95,7 @@ public class WheelView extends View {
     // 自定义属性
     private String mLabel;
     private boolean mIsCyclic;
-    private int mColor;
-    private int mSelectColor;
+    private WheelStyle mStyle;
     private int mTextSize;
     private int mVisibleCount;
     @Nullable
@@ -117,9 +104,18 @@ public class WheelView extends View {
     private Drawable mBottomShadow;
     @Nullable
     private Drawable mSelectedBg;
+    /**
+     * 运行时计数，为null时不计数
+     */
+    @Nullable
+    private WheelMetrics mMetrics;
+    /**
+     * 是否计入监听器的回调，由选择器转发变化时关闭，改由选择器在回调它自己的监听器时计数
+     */
+    private boolean mCountListenerDispatches = true;
 
     public WheelView(Context context) {
-        this(context, null);
+        this(context, (AttributeSet) null);
     }
 
     public WheelView(Context context, AttributeSet attrs) {
@@ -128,22 +124,68 @@ public class WheelView extends View {
 
     public WheelView(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
-        gestureDetector = new GestureDetector(context, gestureListener);
-        gestureDetector.setIsLongpressEnabled(false);// 设置手势长按不起作用
-        scroller = new Scroller(context);
+        init(context);
         TypedArray a = context.obtainStyledAttributes(attrs, R.styleable.WheelView);
         mLabel = a.getString(R.styleable.WheelView_wv_label);
-        mIsCyclic = a.getBoolean(R.styleable.WheelView_wv_cyclic, false);
-        mColor = a.getColor(R.styleable.WheelView_wv_color, 0xFF919191);
-        mSelectColor = a.getColor(R.styleable.WheelView_wv_selectColor, 0xFF000000);
-        mTextSize = (int) a.getDimension(R.styleable.WheelView_wv_textSize, Utils.sp2px(context, 16));
-        mVisibleCount = a.getInt(R.styleable.WheelView_wv_visibleCount, 3);
-        mTopShadow = a.getDrawable(R.styleable.WheelView_wv_topShadow);
-        mBottomShadow = a.getDrawable(R.styleable.WheelView_wv_topShadow);
-        mSelectedBg = a.getDrawable(R.styleable.WheelView_wv_selectedBg);
+        setCyclic(a.getBoolean(R.styleable.WheelView_wv_cyclic, false));
+        setStyle(new WheelStyle(
+                (int) a.getDimension(R.styleable.WheelView_wv_textSize, Utils.sp2px(context, 16)),
+                a.getColor(R.styleable.WheelView_wv_color, 0xFF919191),
+                a.getColor(R.styleable.WheelView_wv_selectColor, 0xFF000000),
+                a.getInt(R.styleable.WheelView_wv_visibleCount, 3),
+                a.getDrawable(R.styleable.WheelView_wv_topShadow),
+                a.getDrawable(R.styleable.WheelView_wv_bottomShadow),
+                a.getDrawable(R.styleable.WheelView_wv_selectedBg)
+        ));
         a.recycle();
     }
 
+    /**
+     * 以代码创建，不读取任何xml属性
+     *
+     * @param context the context
+     * @param style   滚轮的外观，可以由多个滚轮共用
+     */
+    public WheelView(Context context, WheelStyle style) {
+        super(context);
+        init(context);
+        setStyle(style);
+    }
+
+    private void init(Context context) {
+        scroller = new WheelScroller(this, scrollerHost);
+    }
+
+    /**
+     * 替换滚轮的外观。画笔来自共用的缓存，文字大小或可见数目变化时重新测量，否则只重绘
+     *
+     * @param style 滚轮的外观，可以由多个滚轮共用
+     */
+    public void setStyle(@NonNull WheelStyle style) {
+        boolean sizeChanged = mStyle == null
+                || style.getTextSize() != mTextSize || style.getVisibleCount() != mVisibleCount;
+        mStyle = style;
+        mTextSize = style.getTextSize();
+        mVisibleCount = style.getVisibleCount();
+        mTopShadow = style.getTopShadow();
+        mBottomShadow = style.getBottomShadow();
+        mSelectedBg = style.getSelectedBg();
+        itemsPaint = style.getItemsPaint();
+        valuePaint = style.getValuePaint();
+        if (sizeChanged) {
+            itemHeight = 0;
+            itemsWidth = 0;
+            rows.invalidate();
+            requestLayout();
+        }
+        invalidate();
+    }
+
+    @NonNull
+    public WheelStyle getStyle() {
+        return mStyle;
+    }
+
     private int getItemOffset() {
         return mTextSize / 3 - 10;
     }
@@ -164,19 +206,70 @@ public class WheelView extends View {
      * @param adapter
      */
     public void setAdapter(WheelAdapter adapter) {
+        if (this.adapter instanceof ObservableWheelAdapter) {
+            ((ObservableWheelAdapter) this.adapter).unregisterDataSetObserver(adapterObserver);
+        }
+        if (adapter instanceof ObservableWheelAdapter) {
+            ((ObservableWheelAdapter) adapter).registerDataSetObserver(adapterObserver);
+        }
         this.adapter = adapter;
-        invalidateLayouts();
+        rows.setAdapter(adapter);
+        scroller.resetOffset();
+        if (mMetrics != null) {
+            mMetrics.recordAdapterSwap();
+        }
         invalidate();// 是视图无效
     }
 
+    // adapter observer
+    private final DataSetObserver adapterObserver = new DataSetObserver() {
+        @Override
+        public void onChanged() {
+            onAdapterChanged(false);
+        }
+
+        @Override
+        public void onInvalidated() {
+            onAdapterChanged(true);
+        }
+    };
+
+    /**
+     * 适配器的范围变化时，只重新读取受影响的行并修正当前位置
+     *
+     * @param labelsChanged 已有item的文本是否也变化了
+     */
+    private void onAdapterChanged(boolean labelsChanged) {
+        int count = adapter.getItemsCount();
+        if (labelsChanged || itemHeight == 0) {
+            rows.invalidate();
+        } else {
+            rows.refreshChangedRows(itemsPaint);
+        }
+        if (count > 0 && mPosition >= count) {
+            setPosition(count - 1);
+        }
+        if (itemHeight != 0 && adapter.getMaximumLength() != measuredTextLength) {
+            requestLayout();
+        }
+        invalidate();
+    }
+
     /**
      * 设置指定的滚轮动画变化率
      *
      * @param interpolator
      */
     public void setInterpolator(Interpolator interpolator) {
-        scroller.forceFinished(true);
-        scroller = new Scroller(getContext(), interpolator);
+        scroller.setInterpolator(interpolator);
+    }
+
+    /**
+     * 替换滚动使用的 Scroller，测试中代替 Robolectric 不移动的 fling
+     */
+    @VisibleForTesting
+    void setScroller(Scroller scroller) {
+        this.scroller.setScroller(scroller);
     }
 
     /**
@@ -194,8 +287,7 @@ public class WheelView extends View {
      * @param count the new count
      */
     public void setVisibleCount(int count) {
-        mVisibleCount = count;
-        invalidate();
+        setStyle(mStyle.withVisibleCount(count));
     }
 
     /**
@@ -215,7 +307,7 @@ public class WheelView extends View {
     public void setLabel(String newLabel) {
         if (mLabel == null || !mLabel.equals(newLabel)) {
             mLabel = newLabel;
-            labelLayout = null;
+            requestLayout();
             invalidate();
         }
     }
@@ -245,9 +337,14 @@ public class WheelView extends View {
      * @param newValue
      */
     protected void notifyChangingListeners(int oldValue, int newValue) {
-        for (OnWheelChangedListener listener : changingListeners) {
-            listener.onChanged(this, oldValue, newValue);
+        if (mMetrics != null && mCountListenerDispatches && !changingListeners.isEmpty()) {
+            mMetrics.recordListenerDispatch();
+        }
+        boolean traced = Traces.begin("WheelView.notifyChangingListeners");
+        for (int i = 0; i < changingListeners.size(); i++) {
+            changingListeners.get(i).onChanged(this, oldValue, newValue);
         }
+        Traces.end(traced);
     }
 
     /**
@@ -272,8 +369,8 @@ public class WheelView extends View {
      * 通知监听器开始滚动
      */
     protected void notifyScrollingListenersAboutStart() {
-        for (OnWheelScrollListener listener : scrollingListeners) {
-            listener.onScrollingStarted(this);
+        for (int i = 0; i < scrollingListeners.size(); i++) {
+            scrollingListeners.get(i).onScrollingStarted(this);
         }
     }
 
@@ -281,8 +378,8 @@ public class WheelView extends View {
      * 通知监听器结束滚动
      */
     protected void notifyScrollingListenersAboutEnd() {
-        for (OnWheelScrollListener listener : scrollingListeners) {
-            listener.onScrollingFinished(this);
+        for (int i = 0; i < scrollingListeners.size(); i++) {
+            scrollingListeners.get(i).onScrollingFinished(this);
         }
     }
 
@@ -307,19 +404,16 @@ public class WheelView extends View {
         }
         if (position < 0 || position >= adapter.getItemsCount()) {
             if (mIsCyclic) {
-                while (position < 0) {
-                    position += adapter.getItemsCount();
-                }
-                position %= adapter.getItemsCount();
+                position = Utils.getItemIndex(position, adapter.getItemsCount(), true);
             } else {
                 return;
             }
         }
         if (position != mPosition) {
             if (animated) {
-                scroll(position - mPosition, SCROLLING_DURATION);
+                scroll(position - mPosition, WheelScroller.SCROLLING_DURATION);
             } else {
-                invalidateLayouts();
+                scroller.resetOffset();
 
                 int old = mPosition;
                 mPosition = position;
@@ -339,6 +433,15 @@ public class WheelView extends View {
         setPosition(position, false);
     }
 
+    /**
+     * 是否正在滚动，包括拖动、惯性滚动和对齐
+     *
+     * @return true if wheel is scrolling
+     */
+    public boolean isScrolling() {
+        return scroller.isScrolling();
+    }
+
     /**
      * 测试滚轮是否可循环.
      *
@@ -355,111 +458,71 @@ public class WheelView extends View {
      */
     public void setCyclic(boolean isCyclic) {
         this.mIsCyclic = isCyclic;
+        rows.setCyclic(isCyclic);
+        scroller.resetOffset();
         invalidate();
-        invalidateLayouts();
+    }
+
+    /**
+     * 设置运行时计数
+     *
+     * @param metrics 为null时停止计数
+     */
+    public void setMetrics(@Nullable WheelMetrics metrics) {
+        mMetrics = metrics;
+        rows.setMetrics(metrics);
+        scroller.setMetrics(metrics);
+    }
+
+    @Nullable
+    public WheelMetrics getMetrics() {
+        return mMetrics;
+    }
+
+    /**
+     * 设置是否把变化监听器的回调计入 {@link WheelMetrics#getListenerDispatches()}，默认计入。
+     * 监听器只是转发变化的选择器关闭它，使一次变化只计一次
+     */
+    public void setCountListenerDispatches(boolean count) {
+        mCountListenerDispatches = count;
     }
 
     public void setColor(int color) {
-        mColor = color;
-        invalidate();
+        setStyle(mStyle.withColors(color, mStyle.getSelectColor()));
     }
 
     public void setSelectColor(int selectColor) {
-        mSelectColor = selectColor;
-        invalidate();
+        setStyle(mStyle.withColors(mStyle.getColor(), selectColor));
     }
 
     public void setTextSize(int textSize) {
-        this.mTextSize = textSize;
-        invalidate();
-    }
-
-    /**
-     * 使布局无效
-     */
-    private void invalidateLayouts() {
-        itemsLayout = null;
-        valueLayout = null;
-        scrollingOffset = 0;
+        setStyle(mStyle.withTextSize(textSize));
     }
 
     /**
      * 初始化资源信息
      */
     private void initResourceIfNecessary() {
-        if (itemsPaint == null) {
-            itemsPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
-            itemsPaint.setTextSize(mTextSize);
-        }
-        if (valuePaint == null) {
-            valuePaint = new TextPaint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
-            valuePaint.setTextSize(mTextSize);
-            valuePaint.setShadowLayer(0.1f, 0, 0.1f, 0xFFC0C0C0);
+        if (itemHeight == 0) {
+            itemsPaint.getFontMetricsInt(fontMetrics);
+            itemHeight = fontMetrics.descent - fontMetrics.ascent + ADDITIONAL_ITEM_HEIGHT;
         }
     }
 
 
     /**
-     * 计算layout所需的高度
+     * 计算所需的高度
      *
-     * @param layout
      * @return
      */
-    private int getDesiredHeight(Layout layout) {
-        if (layout == null) return 0;
+    private int getDesiredHeight() {
+        if (itemsWidth <= 0) return 0;
         int desired = getItemHeight() * mVisibleCount - getItemOffset() * 2 - ADDITIONAL_ITEM_HEIGHT;
         desired = Math.max(desired, getSuggestedMinimumHeight());
         return desired;
     }
 
 
-    /**
-     * 通过index得到text
-     *
-     * @param index
-     * @return
-     */
-    private String getTextItem(int index) {
-        if (adapter == null || adapter.getItemsCount() == 0) {
-            return null;
-        }
-        int count = adapter.getItemsCount();
-        if ((index < 0 || index >= count) && !mIsCyclic) {
-            return null;
-        } else {
-            while (index < 0) {
-                index += count;
-            }
-        }
-        index %= count;
-        return adapter.getItem(index);
-    }
-
-    /**
-     * 根据当前值构建text
-     *
-     * @param useCurrentValue
-     * @return the text
-     */
-    private String buildText(boolean useCurrentValue) {
-        StringBuilder itemsText = new StringBuilder();
-        int addItems = mVisibleCount / 2 + 1;
-
-        for (int i = mPosition - addItems; i <= mPosition + addItems; i++) {
-            if (useCurrentValue || i != mPosition) {
-                String text = getTextItem(i);
-                if (text != null) {
-                    itemsText.append(text);
-                }
-            }
-            if (i < mPosition + addItems) {
-                itemsText.append("\n");
-            }
-        }
-
-        return itemsText.toString();
-    }
-
     /**
      * 返回可以表示的item的最大长度
      *
@@ -497,29 +560,28 @@ public class WheelView extends View {
     private int getItemHeight() {
         if (itemHeight != 0) {
             return itemHeight;
-        } else if (itemsLayout != null && itemsLayout.getLineCount() > 2) {
-            itemHeight = itemsLayout.getLineTop(2) - itemsLayout.getLineTop(1);
-            return itemHeight;
         }
 
         return getHeight() / mVisibleCount;
     }
 
     /**
-     * 计算控制宽度和创建text布局
+     * 计算控制宽度
      *
      * @param widthSize the input layout width
      * @param mode      the layout mode
      * @return the calculated control width
      */
     private int calculateLayoutWidth(int widthSize, int mode) {
+        boolean traced = Traces.begin("WheelView.calculateLayoutWidth");
         initResourceIfNecessary();
 
         int width;
 
         int maxLength = getMaxTextLength();
+        measuredTextLength = maxLength;
         if (maxLength > 0) {
-            float textWidth = (float) Math.ceil(Layout.getDesiredWidth("0", itemsPaint));
+            float textWidth = (float) Math.ceil(itemsPaint.measureText("0"));
             itemsWidth = (int) (maxLength * textWidth);
         } else {
             itemsWidth = 0;
@@ -527,8 +589,7 @@ public class WheelView extends View {
         itemsWidth += ADDITIONAL_ITEMS_SPACE; // make it some more
         labelWidth = 0;
         if (!TextUtils.isEmpty(mLabel)) {
-            labelWidth = (int) Math.ceil(Layout.getDesiredWidth(mLabel, valuePaint));
-
+            labelWidth = (int) Math.ceil(valuePaint.measureText(mLabel));
         }
 
         boolean recalculate = false;
@@ -566,53 +627,16 @@ public class WheelView extends View {
             }
         }
 
-        if (itemsWidth > 0) {
-            createLayouts(itemsWidth, labelWidth);
-        }
-
+        Traces.end(traced);
         return width;
     }
 
-    /**
-     * 创建布局
-     *
-     * @param widthItems width of items layout
-     * @param widthLabel width of label layout
-     */
-    private void createLayouts(int widthItems, int widthLabel) {
-        if (itemsLayout == null || itemsLayout.getWidth() > widthItems) {
-            itemsLayout = new StaticLayout(buildText(isScrollingPerformed), itemsPaint, widthItems,
-                    widthLabel > 0 ? Layout.Alignment.ALIGN_OPPOSITE : Layout.Alignment.ALIGN_CENTER,
-                    1, ADDITIONAL_ITEM_HEIGHT, false);
-        } else {
-            itemsLayout.increaseWidthTo(widthItems);
-        }
-
-        if (!isScrollingPerformed && (valueLayout == null || valueLayout.getWidth() > widthItems)) {
-            String text = getAdapter() != null ? getAdapter().getItem(mPosition) : null;
-            valueLayout = new StaticLayout(text != null ? text : "",
-                    valuePaint, widthItems, widthLabel > 0 ?
-                    Layout.Alignment.ALIGN_OPPOSITE : Layout.Alignment.ALIGN_CENTER,
-                    1, ADDITIONAL_ITEM_HEIGHT, false);
-        } else if (isScrollingPerformed) {
-            valueLayout = null;
-        } else {
-            valueLayout.increaseWidthTo(widthItems);
-        }
-
-        if (widthLabel > 0) {
-            if (labelLayout == null || labelLayout.getWidth() > widthLabel) {
-                labelLayout = new StaticLayout(mLabel, valuePaint,
-                        widthLabel, Layout.Alignment.ALIGN_NORMAL, 1,
-                        ADDITIONAL_ITEM_HEIGHT, false);
-            } else {
-                labelLayout.increaseWidthTo(widthLabel);
-            }
-        }
-    }
-
     @Override
     protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        boolean traced = Traces.begin("WheelView.onMeasure");
+        if (mMetrics != null) {
+            mMetrics.recordMeasurePass();
+        }
         int widthMode = MeasureSpec.getMode(widthMeasureSpec);
         int heightMode = MeasureSpec.getMode(heightMeasureSpec);
         int widthSize = MeasureSpec.getSize(widthMeasureSpec);
@@ -624,7 +648,7 @@ public class WheelView extends View {
         if (heightMode == MeasureSpec.EXACTLY) {
             height = heightSize;
         } else {
-            height = getDesiredHeight(itemsLayout);
+            height = getDesiredHeight();
 
             if (heightMode == MeasureSpec.AT_MOST) {
                 height = Math.min(height, heightSize);
@@ -632,18 +656,17 @@ public class WheelView extends View {
         }
 
         setMeasuredDimension(width, height);
+        Traces.end(traced);
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
+        boolean traced = Traces.begin("WheelView.onDraw");
+        scroller.onFrameDrawn();
 
-        if (itemsLayout == null) {
-            if (itemsWidth == 0) {
-                calculateLayoutWidth(getWidth(), MeasureSpec.EXACTLY);
-            } else {
-                createLayouts(itemsWidth, labelWidth);
-            }
+        if (itemHeight == 0 || itemsWidth == 0) {
+            calculateLayoutWidth(getWidth(), MeasureSpec.EXACTLY);
         }
 
         drawCenterRect(canvas);
@@ -652,11 +675,12 @@ public class WheelView extends View {
             // Skip padding space and hide a part of top and bottom items
             canvas.translate(PADDING, -getItemOffset());
             drawItems(canvas);
-            drawValue(canvas);
+            drawLabel(canvas);
             canvas.restore();
         }
 
         drawShadows(canvas);
+        Traces.end(traced);
     }
 
     /**
@@ -677,50 +701,32 @@ public class WheelView extends View {
     }
 
     /**
-     * 画value和标签的布局
+     * 画标签
      *
      * @param canvas the canvas for drawing
      */
-    private void drawValue(Canvas canvas) {
-        valuePaint.setColor(mSelectColor);
-        valuePaint.drawableState = getDrawableState();
-
-        Rect bounds = new Rect();
-        itemsLayout.getLineBounds(mVisibleCount / 2, bounds);
-
-        // draw label
-        if (labelLayout != null) {
-            canvas.save();
-            canvas.translate(itemsLayout.getWidth() + LABEL_OFFSET, bounds.top);
-            labelLayout.draw(canvas);
-            canvas.restore();
-        }
-
-        // draw current value
-        if (valueLayout != null) {
-            canvas.save();
-            canvas.translate(0, bounds.top + scrollingOffset);
-            valueLayout.draw(canvas);
-            canvas.restore();
+    private void drawLabel(Canvas canvas) {
+        if (labelWidth > 0) {
+            float top = mVisibleCount / 2 * getItemHeight();
+            canvas.drawText(mLabel, itemsWidth + LABEL_OFFSET, top - fontMetrics.ascent, valuePaint);
         }
     }
 
     /**
-     * 画items
+     * 逐行画items，滚动停止时当前值使用value的画笔
      *
      * @param canvas the canvas for drawing
      */
     private void drawItems(Canvas canvas) {
-        canvas.save();
-
-        int top = itemsLayout.getLineTop(1);
-        canvas.translate(0, -top + scrollingOffset);
+        boolean traced = Traces.begin("WheelView.updateRows");
+        rows.update(mPosition, mVisibleCount, itemsPaint);
+        Traces.end(traced);
 
-        itemsPaint.setColor(mColor);
-        itemsPaint.drawableState = getDrawableState();
-        itemsLayout.draw(canvas);
-
-        canvas.restore();
+        // 画笔与其他滚轮共用，颜色已由样式确定，不写入 drawableState
+        int itemHeight = getItemHeight();
+        float top = scroller.getOffset() - itemHeight - fontMetrics.ascent;
+        rows.draw(canvas, 0, itemsWidth, labelWidth > 0, top, itemHeight,
+                itemsPaint, scroller.isScrolling() ? itemsPaint : valuePaint);
     }
 
     /**
@@ -745,195 +751,66 @@ public class WheelView extends View {
             return true;
         }
 
-        if (!gestureDetector.onTouchEvent(event) && event.getAction() == MotionEvent.ACTION_UP) {
-            justify();
-        }
+        scroller.onTouchEvent(event);
         return true;
     }
 
-    /**
-     * 滚动滚轮
-     *
-     * @param delta the scrolling value
-     */
-    private void doScroll(int delta) {
-        scrollingOffset += delta;
-
-        int count = scrollingOffset / getItemHeight();
-        int pos = mPosition - count;
-        if (mIsCyclic && adapter.getItemsCount() > 0) {
-            // fix position by rotating
-            while (pos < 0) {
-                pos += adapter.getItemsCount();
-            }
-            pos %= adapter.getItemsCount();
-        } else if (isScrollingPerformed) {
-            //
-            if (pos < 0) {
-                count = mPosition;
-                pos = 0;
-            } else if (pos >= adapter.getItemsCount()) {
-                count = mPosition - adapter.getItemsCount() + 1;
-                pos = adapter.getItemsCount() - 1;
-            }
-        } else {
-            // fix position
-            pos = Math.max(pos, 0);
-            pos = Math.min(pos, adapter.getItemsCount() - 1);
-        }
-
-        int offset = scrollingOffset;
-        if (pos != mPosition) {
-            setPosition(pos, false);
-        } else {
-            invalidate();
-        }
-
-        // update offset
-        scrollingOffset = offset - count * getItemHeight();
-        if (scrollingOffset > getHeight()) {
-            scrollingOffset = scrollingOffset % getHeight() + getHeight();
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (scroller.isAnimating()) {
+            stopScrolling();
         }
     }
 
-    // gesture listener
-    private SimpleOnGestureListener gestureListener = new SimpleOnGestureListener() {
-        public boolean onDown(MotionEvent e) {
-            if (isScrollingPerformed) {
-                scroller.forceFinished(true);
-                clearMessages();
-                return true;
-            }
-            return false;
-        }
-
-        public boolean onScroll(MotionEvent e1, MotionEvent e2, float distanceX, float distanceY) {
-            startScrolling();
-            doScroll((int) -distanceY);
-            return true;
-        }
-
-        public boolean onFling(MotionEvent e1, MotionEvent e2, float velocityX, float velocityY) {
-            lastScrollY = mPosition * getItemHeight() + scrollingOffset;
-            int maxY = mIsCyclic ? 0x7FFFFFFF : adapter.getItemsCount() * getItemHeight();
-            int minY = mIsCyclic ? -maxY : 0;
-            scroller.fling(0, lastScrollY, 0, (int) -velocityY / 2, 0, 0, minY, maxY);
-            setNextMessage(MESSAGE_SCROLL);
-            return true;
-        }
-    };
-
-
-    // Messages
-    private final int MESSAGE_SCROLL = 0;
-    private final int MESSAGE_JUSTIFY = 1;
-
     /**
-     * Set next message to queue. Clears queue before.
-     *
-     * @param message the message to set
+     * 立即停止拖动、惯性滚动和对齐，停在当前item上
      */
-    private void setNextMessage(int message) {
-        clearMessages();
-        animationHandler.sendEmptyMessage(message);
+    public void stopScrolling() {
+        scroller.stopScrolling();
     }
 
-    /**
-     * Clears messages from queue
-     */
-    private void clearMessages() {
-        animationHandler.removeMessages(MESSAGE_SCROLL);
-        animationHandler.removeMessages(MESSAGE_JUSTIFY);
+    public void scroll(int itemsToScroll, int time) {
+        scroller.scroll(itemsToScroll, time);
     }
 
-    // animation handler
-    @SuppressLint("HandlerLeak")
-    private Handler animationHandler = new Handler() {
-        public void handleMessage(Message msg) {
-            scroller.computeScrollOffset();
-            int currY = scroller.getCurrY();
-            int delta = lastScrollY - currY;
-            lastScrollY = currY;
-            if (delta != 0) {
-                doScroll(delta);
-            }
+    // scroller host
+    private final WheelScroller.Host scrollerHost = new WheelScroller.Host() {
+        @Override
+        public int getItemsCount() {
+            return adapter != null ? adapter.getItemsCount() : 0;
+        }
 
-            // scrolling is not finished when it comes to final Y
-            // so, finish it manually
-            if (Math.abs(currY - scroller.getFinalY()) < MIN_DELTA_FOR_SCROLLING) {
-                currY = scroller.getFinalY();
-                scroller.forceFinished(true);
-            }
-            if (!scroller.isFinished()) {
-                animationHandler.sendEmptyMessage(msg.what);
-            } else if (msg.what == MESSAGE_SCROLL) {
-                justify();
-            } else {
-                finishScrolling();
-            }
+        @Override
+        public int getPosition() {
+            return mPosition;
         }
-    };
 
-    /**
-     * Justifies wheel
-     */
-    private void justify() {
-        if (adapter == null) {
-            return;
+        @Override
+        public boolean isCyclic() {
+            return mIsCyclic;
         }
 
-        lastScrollY = 0;
-        int offset = scrollingOffset;
-        int itemHeight = getItemHeight();
-        boolean needToIncrease = offset > 0 ? mPosition < adapter.getItemsCount() : mPosition > 0;
-        if ((mIsCyclic || needToIncrease) && Math.abs((float) offset) > (float) itemHeight / 2) {
-            if (offset < 0)
-                offset += itemHeight + MIN_DELTA_FOR_SCROLLING;
-            else
-                offset -= itemHeight + MIN_DELTA_FOR_SCROLLING;
-        }
-        if (Math.abs(offset) > MIN_DELTA_FOR_SCROLLING) {
-            scroller.startScroll(0, 0, 0, offset, SCROLLING_DURATION);
-            setNextMessage(MESSAGE_JUSTIFY);
-        } else {
-            finishScrolling();
+        @Override
+        public int getItemHeight() {
+            return WheelView.this.getItemHeight();
         }
-    }
 
-    /**
-     * 开始滚动
-     */
-    private void startScrolling() {
-        if (!isScrollingPerformed) {
-            isScrollingPerformed = true;
+        @Override
+        public void setScrolledPosition(int position) {
+            setPosition(position, false);
+        }
+
+        @Override
+        public void onScrollingStarted() {
             notifyScrollingListenersAboutStart();
         }
-    }
 
-    /**
-     * 停止滚动
-     */
-    void finishScrolling() {
-        if (isScrollingPerformed) {
+        @Override
+        public void onScrollingFinished() {
             notifyScrollingListenersAboutEnd();
-            isScrollingPerformed = false;
         }
-        invalidateLayouts();
-        invalidate();
-    }
-
-    public void scroll(int itemsToScroll, int time) {
-        scroller.forceFinished(true);
-
-        lastScrollY = scrollingOffset;
-
-        int offset = itemsToScroll * getItemHeight();
-
-        scroller.startScroll(0, lastScrollY, 0, offset - lastScrollY, time);
-        setNextMessage(MESSAGE_SCROLL);
-
-        startScrolling();
-    }
+    };
 
 
     public interface WheelAdapter {
@@ -961,6 +838,42 @@ public class WheelView extends View {
         int getMaximumLength();
     }
 
+    public interface ObservableWheelAdapter extends WheelAdapter {
+        /**
+         * Registers an observer notified when the items change. {@link DataSetObserver#onChanged()}
+         * means the items count changed but existing items kept their text,
+         * {@link DataSetObserver#onInvalidated()} means the text of existing items changed too.
+         *
+         * @param observer the observer
+         */
+        void registerDataSetObserver(DataSetObserver observer);
+
+        /**
+         * Unregisters an observer.
+         *
+         * @param observer the observer
+         */
+        void unregisterDataSetObserver(DataSetObserver observer);
+    }
+
+    public interface IntWheelAdapter extends WheelAdapter {
+        /**
+         * Gets the value of a wheel item by index.
+         *
+         * @param index the item index
+         * @return the item value
+         */
+        int getValue(int index);
+
+        /**
+         * Gets the width the values are zero padded to, the sign included.
+         * If -1 is returned the wheel draws the text returned by getItem instead.
+         *
+         * @return the padded width, 0 for no padding, or -1
+         */
+        int getMinimumWidth();
+    }
+
     public interface OnWheelChangedListener {
         /**
          * Callback method to be invoked when current item changed
@@ -0,0 +1,68 @@
+package com.tuuzed.androidx.datepicker;
+
+import com.tuuzed.androidx.datepicker.internal.FrameBudget;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class CompactDatePickerFrameBudgetTest {
+
+    private int changes;
+
+    @Test
+    public void setDateFrames() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        CompactDatePicker picker = new CompactDatePicker(scene.getActivity());
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes++;
+            }
+        });
+        scene.show(picker, 720, 0);
+
+        FrameBudget budget = FrameBudget.start(scene);
+        for (int pass = 0; pass < 2; pass++) {
+            budget.reset();
+            changes = 0;
+            picker.setPackedDate(20260101);
+            picker.setPackedTime(0);
+            for (int i = 0; i < 120; i++) {
+                budget.begin();
+                // 每帧前进 1 天 1 分钟，跨越大小月
+                picker.setPackedTime(i + 1);
+                picker.setPackedDate(20260101 + (i / 28) * 100 + i % 28 + 1);
+                scene.drawFrame();
+                budget.end();
+            }
+        }
+        budget.assertWithin("compactDatePicker.setDate.bytesPerFrame");
+        assertTrue(changes > 0);
+        assertEquals(20260509, picker.getPackedDate());
+        assertEquals(120, picker.getPackedTime());
+    }
+
+    @Test
+    public void datePickerType() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        CompactDatePicker picker = new CompactDatePicker(scene.getActivity());
+        scene.show(picker, 720, 0);
+        int[] types = {DatePickerType.TYPE_YMDHM, DatePickerType.TYPE_YMDH, DatePickerType.TYPE_YMD,
+                DatePickerType.TYPE_YM, DatePickerType.TYPE_Y, DatePickerType.TYPE_HM};
+        int[] columns = {5, 4, 3, 2, 1, 2};
+        for (int i = 0; i < types.length; i++) {
+            picker.setDatePickerType(types[i]);
+            scene.canvas.textCount = 0;
+            scene.relayout();
+            // 每列 3 个可见 item 加上下各一个部分可见的 item，再加一个标签
+            assertTrue(scene.canvas.textCount >= columns[i] * 4);
+            assertTrue(scene.canvas.textCount <= columns[i] * 6);
+        }
+    }
+}
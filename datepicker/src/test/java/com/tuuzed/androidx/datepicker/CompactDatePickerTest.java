@@ -0,0 +1,118 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import com.tuuzed.androidx.datepicker.internal.FrameBudget;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class CompactDatePickerTest {
+
+    @Test
+    public void dateHasNoSeconds() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        CompactDatePicker picker = new CompactDatePicker(scene.getActivity());
+        final List<Date> dates = new ArrayList<>();
+        picker.setOnDateChangedListener(new DatePicker.OnDateChangedListener() {
+            @Override
+            public void onDateChanged(Date newDate) {
+                dates.add(newDate);
+            }
+        });
+        picker.setPackedDate(20210615);
+
+        assertEquals(1, dates.size());
+        assertEquals(picker.getEpochMillis(), dates.get(0).getTime());
+        assertEquals(picker.getDate(), dates.get(0));
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(dates.get(0));
+        assertEquals(0, calendar.get(Calendar.SECOND));
+        assertEquals(0, calendar.get(Calendar.MILLISECOND));
+    }
+
+    @Test
+    public void hourRangeAndMinuteInterval() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        CompactDatePicker picker = new CompactDatePicker(scene.getActivity());
+        picker.setPackedDate(20210615);
+        picker.setPackedTime(2037);
+        final List<Integer> times = new ArrayList<>();
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                times.add(hour * 100 + minute);
+            }
+        });
+
+        picker.setHourRange(9, 17);
+        assertEquals(1737, picker.getPackedTime());
+        picker.setMinuteInterval(15);
+        assertEquals(1730, picker.getPackedTime());
+        picker.setPackedTime(752);
+        assertEquals(945, picker.getPackedTime());
+        // 范围不影响选中的时间时不回调
+        picker.setHourRange(8, 18);
+        assertEquals(945, picker.getPackedTime());
+        assertEquals(20210615, picker.getPackedDate());
+        assertEquals(3, times.size());
+        assertEquals(945, (int) times.get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsDateHm() {
+        CompactDatePicker picker = new CompactDatePicker(FrameBudget.Scene.create().getActivity());
+        picker.setDatePickerType(DatePickerType.TYPE_DATE_HM);
+    }
+
+    @Test
+    public void monthChangeClampingDayNotifiesOnce() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        CompactDatePicker picker = new CompactDatePicker(scene.getActivity());
+        picker.setDatePickerType(DatePickerType.TYPE_YM);
+        scene.show(picker, 720, 0);
+        picker.setPackedDate(20210131);
+        final List<Integer> packed = new ArrayList<>();
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                packed.add(year * 10000 + month * 100 + day);
+            }
+        });
+
+        // 慢慢向上拖动月份列，每经过一个item回调一次
+        long downTime = SystemClock.uptimeMillis();
+        float x = picker.getWidth() * 3 / 4f;
+        float y = picker.getHeight() - 10;
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        picker.onTouchEvent(down);
+        down.recycle();
+        for (int i = 0; i < 20; i++) {
+            FrameBudget.nextFrame();
+            y -= 10;
+            MotionEvent move = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                    MotionEvent.ACTION_MOVE, x, y, 0);
+            picker.onTouchEvent(move);
+            move.recycle();
+        }
+
+        assertFalse("the month column did not move", packed.isEmpty());
+        // 2 月修正了日，仍只回调一次
+        assertEquals(20210228, (int) packed.get(0));
+        for (int i = 1; i < packed.size(); i++) {
+            assertNotEquals(packed.get(i - 1), packed.get(i));
+        }
+    }
+}
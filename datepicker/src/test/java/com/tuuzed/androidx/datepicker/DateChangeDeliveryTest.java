@@ -0,0 +1,96 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.tuuzed.androidx.datepicker.internal.FrameBudget;
+import com.tuuzed.androidx.datepicker.internal.WheelView;
+import com.tuuzed.androidx.datepicker.internal.Wheels;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DateChangeDeliveryTest {
+
+    private int changes;
+
+    @Test
+    public void settlesAfterCancel() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        DatePicker picker = new DatePicker(scene.getActivity(), DatePickerType.TYPE_YMD);
+        picker.setPackedDate(20210615);
+        picker.setDateChangeDelivery(DateChangeDelivery.DELIVERY_ON_SETTLE);
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes++;
+            }
+        });
+        scene.show(picker, 720, 0);
+        WheelView wheel = Wheels.findWheels(picker).get(2);
+
+        dragAndCancel(wheel, wheel.getWidth() / 2f, wheel.getHeight() - 10);
+        assertEquals(0, changes);
+        for (int i = 0; i < 200 && wheel.isScrolling(); i++) {
+            FrameBudget.nextFrame();
+        }
+        assertFalse(wheel.isScrolling());
+        assertEquals(1, changes);
+        assertNotEquals(20210615, picker.getPackedDate());
+    }
+
+    @Test
+    public void compactSettlesAfterCancel() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        CompactDatePicker picker = new CompactDatePicker(scene.getActivity());
+        picker.setDatePickerType(DatePickerType.TYPE_YMD);
+        picker.setPackedDate(20210615);
+        picker.setDateChangeDelivery(DateChangeDelivery.DELIVERY_ON_SETTLE);
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes++;
+            }
+        });
+        scene.show(picker, 720, 0);
+
+        // 日在最右一列
+        dragAndCancel(picker, picker.getWidth() * 5 / 6f, picker.getHeight() - 10);
+        assertEquals(0, changes);
+        for (int i = 0; i < 200 && picker.isScrolling(); i++) {
+            FrameBudget.nextFrame();
+        }
+        assertFalse(picker.isScrolling());
+        assertEquals(1, changes);
+        assertNotEquals(20210615, picker.getPackedDate());
+    }
+
+    /**
+     * 向上拖动后收到 CANCEL，如父 View 拦截了手势
+     */
+    private static void dragAndCancel(View view, float x, float y) {
+        long downTime = SystemClock.uptimeMillis();
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+        view.onTouchEvent(down);
+        down.recycle();
+        for (int i = 0; i < 6; i++) {
+            FrameBudget.nextFrame();
+            y -= 15;
+            MotionEvent move = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                    MotionEvent.ACTION_MOVE, x, y, 0);
+            view.onTouchEvent(move);
+            move.recycle();
+        }
+        MotionEvent cancel = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                MotionEvent.ACTION_CANCEL, x, y, 0);
+        view.onTouchEvent(cancel);
+        cancel.recycle();
+    }
+}
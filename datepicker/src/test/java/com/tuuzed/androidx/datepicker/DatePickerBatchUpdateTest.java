@@ -0,0 +1,204 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.app.Activity;
+import android.graphics.Color;
+
+import com.tuuzed.androidx.datepicker.internal.WheelMetrics;
+import com.tuuzed.androidx.datepicker.internal.WheelView;
+import com.tuuzed.androidx.datepicker.internal.Wheels;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatePickerBatchUpdateTest {
+
+    @Test
+    public void appliesOnceOnEnd() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_Y);
+        final int[] changes = new int[1];
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes[0]++;
+            }
+        });
+
+        picker.beginBatchUpdate();
+        picker.setDatePickerType(DatePickerType.TYPE_YMD);
+        picker.setMinYear(2000);
+        picker.setMaxYear(2030);
+        picker.setTextColor(Color.RED);
+        picker.setPackedDate(20240229);
+        // 结束前滚轮保持原样，也没有回调
+        assertEquals(1, Wheels.findWheels(picker).size());
+        assertEquals(0, changes[0]);
+        picker.endBatchUpdate();
+
+        assertEquals(1, changes[0]);
+        assertEquals(20240229, picker.getPackedDate());
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(3, wheels.size());
+        assertEquals(31, wheels.get(0).getAdapter().getItemsCount());
+        assertEquals(2024 - 2000, wheels.get(0).getPosition());
+        assertEquals(1, wheels.get(1).getPosition());
+        assertEquals(28, wheels.get(2).getPosition());
+    }
+
+    @Test
+    public void nested() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMD);
+        picker.setPackedDate(20200101);
+        final int[] changes = new int[1];
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes[0]++;
+            }
+        });
+
+        picker.beginBatchUpdate();
+        picker.beginBatchUpdate();
+        picker.setPackedDate(20210615);
+        picker.endBatchUpdate();
+        // 内层结束时还不同步滚轮
+        assertEquals(2020 - 1970, Wheels.findWheels(picker).get(0).getPosition());
+        picker.setPackedDate(20200101);
+        picker.endBatchUpdate();
+        // 日期回到了开始时的值
+        assertEquals(0, changes[0]);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void endWithoutBegin() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        new DatePicker(activity, DatePickerType.TYPE_YMD).endBatchUpdate();
+    }
+
+    @Test
+    public void setDateNotifiesOnce() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMDHM);
+        picker.setPackedDate(20250131);
+        final int[] packed = new int[2];
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                packed[0]++;
+                packed[1] = year * 10000 + month * 100 + day;
+            }
+        });
+
+        picker.setPackedDate(20240229);
+        // 回调时各字段都已更新
+        assertEquals(1, packed[0]);
+        assertEquals(20240229, packed[1]);
+
+        picker.setPackedDate(20240229);
+        assertEquals(1, packed[0]);
+    }
+
+    @Test
+    public void setDateSilently() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMD);
+        final int[] changes = new int[1];
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes[0]++;
+            }
+        });
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2021, Calendar.JUNE, 15, 8, 30);
+        picker.setDate(calendar.getTime(), false);
+        assertEquals(0, changes[0]);
+        assertEquals(20210615, picker.getPackedDate());
+        assertEquals(2021 - 1970, Wheels.findWheels(picker).get(0).getPosition());
+    }
+
+    @Test
+    public void bindIsSilentAndKeepsAdapters() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_DATE_HM);
+        final int[] changes = new int[1];
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes[0]++;
+            }
+        });
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2021, Calendar.JUNE, 1, 0, 0);
+        Date min = calendar.getTime();
+        calendar.set(2021, Calendar.JUNE, 30, 23, 59);
+        Date max = calendar.getTime();
+        calendar.set(2021, Calendar.JUNE, 15, 8, 30);
+        picker.bind(calendar.getTime(), DatePickerType.TYPE_DATE_HM, min, max);
+
+        assertEquals(0, changes[0]);
+        assertEquals(20210615, picker.getPackedDate());
+        WheelView dates = Wheels.findWheels(picker).get(0);
+        WheelView.WheelAdapter adapter = dates.getAdapter();
+        assertEquals(30, adapter.getItemsCount());
+        assertEquals(14, dates.getPosition());
+
+        // 正在滚动的行被回收
+        dates.scroll(5, 400);
+        picker.unbind();
+        assertFalse(dates.isScrolling());
+
+        int changesBefore = changes[0];
+        calendar.set(2021, Calendar.JULY, 1, 0, 0);
+        min = calendar.getTime();
+        calendar.set(2021, Calendar.JULY, 31, 23, 59);
+        max = calendar.getTime();
+        calendar.set(2021, Calendar.JULY, 4, 12, 0);
+        picker.bind(calendar.getTime(), DatePickerType.TYPE_DATE_HM, min, max);
+
+        assertEquals(changesBefore, changes[0]);
+        assertEquals(20210704, picker.getPackedDate());
+        assertSame(adapter, dates.getAdapter());
+        assertEquals(31, adapter.getItemsCount());
+        assertEquals(3, dates.getPosition());
+    }
+
+    @Test
+    public void metricsCountDeliveredCallbacksOnce() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMD);
+        picker.setPackedDate(20200131);
+        WheelMetrics metrics = new WheelMetrics();
+        picker.setMetrics(metrics);
+        final int[] changes = new int[1];
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes[0]++;
+            }
+        });
+
+        // 滚动月份时日被修正，滚轮转发给选择器的变化不计数
+        Wheels.findWheels(picker).get(1).setPosition(1);
+        assertEquals(20200229, picker.getPackedDate());
+        assertEquals(1, changes[0]);
+        assertEquals(1, metrics.getListenerDispatches());
+
+        // 以代码设置日期时同步滚轮不回调，也不计数
+        picker.setPackedDate(20210615);
+        assertEquals(2, changes[0]);
+        assertEquals(2, metrics.getListenerDispatches());
+    }
+}
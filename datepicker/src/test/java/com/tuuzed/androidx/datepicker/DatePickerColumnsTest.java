@@ -0,0 +1,253 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.app.Activity;
+
+import com.tuuzed.androidx.datepicker.internal.CalendarMath;
+import com.tuuzed.androidx.datepicker.internal.WheelView;
+import com.tuuzed.androidx.datepicker.internal.Wheels;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatePickerColumnsTest {
+
+    @Test
+    public void createsOnlyVisibleColumns() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_Y);
+        assertEquals(1, Wheels.findWheels(picker).size());
+
+        picker.setDatePickerType(DatePickerType.TYPE_HM);
+        assertEquals(2, Wheels.findWheels(picker).size());
+
+        picker.setDatePickerType(DatePickerType.TYPE_YMDHM);
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(5, wheels.size());
+
+        // 复用的列保持原来的顺序
+        picker.setDatePickerType(DatePickerType.TYPE_YMD);
+        picker.setDatePickerType(DatePickerType.TYPE_YMDHM);
+        assertEquals(wheels, Wheels.findWheels(picker));
+    }
+
+    @Test
+    public void hiddenColumnsKeepTheirValues() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_HM);
+        picker.setPackedDate(20240229);
+        picker.setPackedTime(1530);
+        assertEquals(20240229, picker.getPackedDate());
+        assertEquals(1530, picker.getPackedTime());
+
+        picker.setDatePickerType(DatePickerType.TYPE_YMDHM);
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(2024 - 1970, wheels.get(0).getPosition());
+        assertEquals(1, wheels.get(1).getPosition());
+        assertEquals(28, wheels.get(2).getPosition());
+        assertEquals(29, wheels.get(2).getAdapter().getItemsCount());
+
+        // 年滚到平年时日被限制在 28 日
+        wheels.get(0).setPosition(2025 - 1970);
+        assertEquals(20250228, picker.getPackedDate());
+        assertEquals(27, wheels.get(2).getPosition());
+    }
+
+    @Test
+    public void dateColumnReplacesYearMonthDay() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_DATE_HM);
+        picker.setPackedDate(20240229);
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(3, wheels.size());
+        WheelView date = wheels.get(0);
+        assertEquals(CalendarMath.toEpochDay(2024, 2, 29) - CalendarMath.toEpochDay(1970, 1, 1),
+                date.getPosition());
+
+        // 日期列跨月滚动时年月日一起变化
+        date.setPosition(date.getPosition() + 1);
+        assertEquals(20240301, picker.getPackedDate());
+
+        picker.setDatePickerType(DatePickerType.TYPE_YMD);
+        wheels = Wheels.findWheels(picker);
+        assertEquals(2, wheels.get(1).getPosition());
+        assertEquals(0, wheels.get(2).getPosition());
+    }
+
+    @Test
+    public void minuteIntervalAndHourRange() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_HM);
+        picker.setPackedTime(2037);
+        picker.setMinuteInterval(15);
+        picker.setHourRange(9, 17);
+        assertEquals(1730, picker.getPackedTime());
+
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(9, wheels.get(0).getAdapter().getItemsCount());
+        assertEquals(4, wheels.get(1).getAdapter().getItemsCount());
+        assertEquals(8, wheels.get(0).getPosition());
+        assertEquals(2, wheels.get(1).getPosition());
+
+        wheels.get(1).setPosition(3);
+        assertEquals(1745, picker.getPackedTime());
+        picker.setPackedTime(1008);
+        assertEquals(1000, picker.getPackedTime());
+        assertEquals(1, wheels.get(0).getPosition());
+        assertEquals(0, wheels.get(1).getPosition());
+    }
+
+    @Test
+    public void minAndMaxDate() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMDHM);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2026, Calendar.OCTOBER, 18, 10, 7);
+        picker.setMinDate(calendar.getTime());
+        calendar.set(2027, Calendar.JANUARY, 16, 18, 0);
+        picker.setMaxDate(calendar.getTime());
+
+        // 早于最小日期时取最小日期，各列只包含范围内的值
+        picker.setPackedDate(20200101);
+        assertEquals(20261018, picker.getPackedDate());
+        assertEquals(1007, picker.getPackedTime());
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(2, wheels.get(0).getAdapter().getItemsCount());
+        assertEquals(3, wheels.get(1).getAdapter().getItemsCount());
+        assertEquals(14, wheels.get(2).getAdapter().getItemsCount());
+        assertEquals(14, wheels.get(3).getAdapter().getItemsCount());
+        assertEquals(53, wheels.get(4).getAdapter().getItemsCount());
+
+        // 离开最小日期所在的月，低位各列恢复完整的范围
+        wheels.get(1).setPosition(1);
+        assertEquals(20261118, picker.getPackedDate());
+        assertEquals(30, wheels.get(2).getAdapter().getItemsCount());
+        assertEquals(17, wheels.get(2).getPosition());
+        assertEquals(24, wheels.get(3).getAdapter().getItemsCount());
+        assertEquals(10, wheels.get(3).getPosition());
+
+        // 滚到最大日期所在的年，月和日被限制
+        wheels.get(0).setPosition(1);
+        assertEquals(20270116, picker.getPackedDate());
+        assertEquals(1007, picker.getPackedTime());
+        assertEquals(1, wheels.get(1).getAdapter().getItemsCount());
+        assertEquals(16, wheels.get(2).getAdapter().getItemsCount());
+        assertEquals(19, wheels.get(3).getAdapter().getItemsCount());
+
+        picker.setMaxDate(null);
+        assertEquals(12, wheels.get(1).getAdapter().getItemsCount());
+    }
+
+    @Test
+    public void minDateRoundsUpToInterval() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMDHM);
+        picker.setMinuteInterval(15);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2026, Calendar.OCTOBER, 18, 10, 50);
+        picker.setMinDate(calendar.getTime());
+
+        // 10 点内没有不早于 10:50 的一项，取 11:00 而不是 10:45
+        picker.setPackedDate(20200101);
+        assertEquals(20261018, picker.getPackedDate());
+        assertEquals(1100, picker.getPackedTime());
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(13, wheels.get(3).getAdapter().getItemsCount());
+        assertEquals(4, wheels.get(4).getAdapter().getItemsCount());
+    }
+
+    @Test
+    public void minAndMaxDateOutsideHourRange() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMDHM);
+        picker.setHourRange(9, 17);
+        picker.setMinuteInterval(15);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2026, Calendar.OCTOBER, 18, 20, 0);
+        picker.setMinDate(calendar.getTime());
+        calendar.set(2026, Calendar.OCTOBER, 25, 8, 0);
+        picker.setMaxDate(calendar.getTime());
+
+        // 最小日期当天已过了小时范围，从次日开始；最大日期当天还没到，到前一天为止
+        picker.setPackedDate(20200101);
+        assertEquals(20261019, picker.getPackedDate());
+        assertEquals(900, picker.getPackedTime());
+        List<WheelView> wheels = Wheels.findWheels(picker);
+        assertEquals(6, wheels.get(2).getAdapter().getItemsCount());
+        assertEquals(9, wheels.get(3).getAdapter().getItemsCount());
+        assertEquals(4, wheels.get(4).getAdapter().getItemsCount());
+
+        picker.setPackedDate(20270101);
+        assertEquals(20261024, picker.getPackedDate());
+        assertEquals(1745, picker.getPackedTime());
+        assertEquals(9, wheels.get(3).getAdapter().getItemsCount());
+        assertEquals(4, wheels.get(4).getAdapter().getItemsCount());
+    }
+
+    @Test
+    public void movesMinAndMaxDateWindow() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMDHM);
+        picker.setPackedDate(20260103);
+        picker.setPackedTime(1200);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2026, Calendar.JANUARY, 1, 0, 0);
+        picker.setMinDate(calendar.getTime());
+        calendar.set(2026, Calendar.JANUARY, 5, 0, 0);
+        picker.setMaxDate(calendar.getTime());
+        List<WheelView> wheels = Wheels.findWheels(picker);
+
+        // 向后移动：先设置的最小日期晚于原来的最大日期时，最大日期暂时收缩到它上面
+        calendar.set(2026, Calendar.FEBRUARY, 1, 0, 0);
+        picker.setMinDate(calendar.getTime());
+        assertEquals(20260201, picker.getPackedDate());
+        assertEquals(0, picker.getPackedTime());
+        for (int i = 0; i < wheels.size(); i++) {
+            assertEquals(1, wheels.get(i).getAdapter().getItemsCount());
+        }
+        picker.setMinYear(1990);
+        calendar.set(2026, Calendar.FEBRUARY, 5, 0, 0);
+        picker.setMaxDate(calendar.getTime());
+        picker.setPackedDate(20260203);
+        assertEquals(20260203, picker.getPackedDate());
+        assertEquals(5, wheels.get(2).getAdapter().getItemsCount());
+
+        // 向前移动：先设置的最大日期早于最小日期时以最大日期为准
+        calendar.set(2025, Calendar.DECEMBER, 5, 0, 0);
+        picker.setMaxDate(calendar.getTime());
+        assertEquals(20251205, picker.getPackedDate());
+        calendar.set(2025, Calendar.DECEMBER, 1, 0, 0);
+        picker.setMinDate(calendar.getTime());
+        picker.setPackedDate(20251203);
+        assertEquals(20251203, picker.getPackedDate());
+        assertEquals(5, wheels.get(2).getAdapter().getItemsCount());
+    }
+
+    @Test
+    public void minAndMaxDateWithoutSelectableTimeKeepOneItem() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePicker picker = new DatePicker(activity, DatePickerType.TYPE_YMDHM);
+        picker.setHourRange(9, 17);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2026, Calendar.OCTOBER, 18, 20, 0);
+        picker.setMinDate(calendar.getTime());
+        calendar.set(2026, Calendar.OCTOBER, 19, 8, 0);
+        picker.setMaxDate(calendar.getTime());
+
+        // 小时范围内两端之间没有可选的时间，以后设置的最大日期为准，各列都不为空
+        assertEquals(20261018, picker.getPackedDate());
+        assertEquals(1759, picker.getPackedTime());
+        for (WheelView wheel : Wheels.findWheels(picker)) {
+            assertEquals(1, wheel.getAdapter().getItemsCount());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.tuuzed.androidx.datepicker;
+
+import com.tuuzed.androidx.datepicker.internal.FrameBudget;
+import com.tuuzed.androidx.datepicker.internal.Wheels;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatePickerFrameBudgetTest {
+
+    private int changes;
+
+    @Test
+    public void setDateFrames() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        DatePicker picker = new DatePicker(scene.getActivity());
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes++;
+            }
+        });
+        scene.show(picker, 720, 0);
+        assertEquals(5, Wheels.findWheels(picker).size());
+
+        FrameBudget budget = FrameBudget.start(scene);
+        for (int pass = 0; pass < 2; pass++) {
+            budget.reset();
+            changes = 0;
+            picker.setPackedDate(20260101);
+            picker.setPackedTime(0);
+            for (int i = 0; i < 120; i++) {
+                budget.begin();
+                // 每帧前进 1 天 1 分钟，跨越大小月
+                picker.setPackedTime(i + 1);
+                picker.setPackedDate(20260101 + (i / 28) * 100 + i % 28 + 1);
+                scene.drawFrame();
+                budget.end();
+            }
+        }
+        budget.assertWithin("datePicker.setDate.bytesPerFrame");
+        assertTrue(changes > 0);
+        assertTrue(scene.canvas.textCount > 0);
+    }
+}
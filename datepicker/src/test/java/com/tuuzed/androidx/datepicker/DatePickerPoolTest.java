@@ -0,0 +1,142 @@
+package com.tuuzed.androidx.datepicker;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.widget.FrameLayout;
+
+import com.tuuzed.androidx.datepicker.internal.NumericWheelAdapter;
+import com.tuuzed.androidx.datepicker.internal.WheelMetrics;
+import com.tuuzed.androidx.datepicker.internal.WheelView;
+import com.tuuzed.androidx.datepicker.internal.Wheels;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Calendar;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class DatePickerPoolTest {
+
+    private int changes;
+
+    @Test
+    public void releasedPickerIsReusedWithoutListeners() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePickerPool pool = new DatePickerPool(activity, 1);
+        DatePicker picker = pool.acquire(DatePickerType.TYPE_YMD);
+        assertEquals(3, Wheels.findWheels(picker).size());
+
+        FrameLayout parent = new FrameLayout(activity);
+        parent.addView(picker);
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes++;
+            }
+        });
+        picker.setPackedDate(20200101);
+        assertTrue(changes > 0);
+
+        pool.release(picker);
+        assertNull(picker.getParent());
+        assertEquals(1, pool.size());
+        // 池已满
+        pool.release(new DatePicker(activity, DatePickerType.TYPE_Y));
+        assertEquals(1, pool.size());
+
+        DatePicker reused = pool.acquire(DatePickerType.TYPE_HM);
+        assertSame(picker, reused);
+        assertEquals(0, pool.size());
+        assertEquals(DatePickerType.TYPE_HM, reused.getDatePickerType());
+        assertEquals(2, Wheels.findWheels(reused).size());
+
+        changes = 0;
+        reused.setPackedDate(20210101);
+        assertEquals(0, changes);
+    }
+
+    @Test
+    public void releasedPickerRestoresDefaults() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePickerPool pool = new DatePickerPool(activity, 1);
+        DatePicker picker = pool.acquire(DatePickerType.TYPE_YMDHM);
+        Calendar calendar = Calendar.getInstance();
+        calendar.set(2026, Calendar.OCTOBER, 18, 9, 0);
+        picker.setMinDate(calendar.getTime());
+        calendar.set(2026, Calendar.OCTOBER, 25, 17, 0);
+        picker.setMaxDate(calendar.getTime());
+        picker.setMinYear(2020);
+        picker.setMaxYear(2030);
+        picker.setMinuteInterval(15);
+        picker.setHourRange(9, 17);
+        picker.setTextColor(Color.RED);
+        picker.setDateChangeDelivery(DateChangeDelivery.DELIVERY_ON_SETTLE);
+        picker.setMetrics(new WheelMetrics());
+        pool.release(picker);
+
+        DatePicker reused = pool.acquire(DatePickerType.TYPE_YMDHM);
+        assertSame(picker, reused);
+        assertEquals(1, reused.getMinuteInterval());
+        assertEquals(0, reused.getMinHour());
+        assertEquals(23, reused.getMaxHour());
+        assertEquals(DateChangeDelivery.DELIVERY_EVERY_STEP, reused.getDateChangeDelivery());
+        assertNull(reused.getMetrics());
+        for (WheelView wheel : Wheels.findWheels(reused)) {
+            assertEquals(Color.BLACK, wheel.getStyle().getSelectColor());
+            assertNull(wheel.getMetrics());
+        }
+        // 最小、最大日期和年的范围不再限制
+        reused.setPackedDate(19700101);
+        reused.setPackedTime(2007);
+        assertEquals(19700101, reused.getPackedDate());
+        assertEquals(2007, reused.getPackedTime());
+        reused.setPackedDate(21001231);
+        assertEquals(21001231, reused.getPackedDate());
+    }
+
+    @Test
+    public void acquireWithDateAndYears() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        DatePickerPool pool = new DatePickerPool(activity, 1);
+        DatePicker picker = pool.acquire(DatePickerType.TYPE_YMDHM);
+        picker.setMinYear(2020);
+        picker.setMaxYear(2030);
+        picker.setOnDateFieldsChangedListener(new DatePicker.OnDateFieldsChangedListener() {
+            @Override
+            public void onDateChanged(int year, int month, int day, int hour, int minute) {
+                changes++;
+            }
+        });
+        pool.release(picker);
+
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(1995, Calendar.JUNE, 15, 10, 30);
+        DatePicker reused = pool.acquire(DatePickerType.TYPE_YMD, calendar.getTime(), 1990, 2000);
+        assertSame(picker, reused);
+        assertEquals(DatePickerType.TYPE_YMD, reused.getDatePickerType());
+        assertEquals(19950615, reused.getPackedDate());
+        assertEquals(0, changes);
+        // 使用取出时的年的范围，而不是归还前的或默认的
+        assertYears(reused, 1990, 2000);
+
+        // 池为空时新建，同样使用给定的范围
+        calendar.set(1998, Calendar.JANUARY, 1);
+        DatePicker created = pool.acquire(DatePickerType.TYPE_Y, calendar.getTime(), 1990, 2000);
+        assertNotSame(picker, created);
+        assertEquals(19980101, created.getPackedDate());
+        assertYears(created, 1990, 2000);
+    }
+
+    private static void assertYears(DatePicker picker, int minYear, int maxYear) {
+        NumericWheelAdapter years = (NumericWheelAdapter) Wheels.findWheels(picker).get(0).getAdapter();
+        assertEquals(minYear, years.getMinValue());
+        assertEquals(maxYear, years.getMaxValue());
+    }
+}
@@ -0,0 +1,78 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class CalendarMathTest {
+
+    private static final int MIN_YEAR = 1600;
+    private static final int MAX_YEAR = 2400;
+
+    private static GregorianCalendar newCalendar() {
+        GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        // 前推格里高利历，与 CalendarMath 一致
+        calendar.setGregorianChange(new Date(Long.MIN_VALUE));
+        calendar.clear();
+        return calendar;
+    }
+
+    @Test
+    public void isLeapYear() {
+        GregorianCalendar calendar = newCalendar();
+        for (int year = 1; year <= 9999; year++) {
+            assertEquals("year " + year, calendar.isLeapYear(year), CalendarMath.isLeapYear(year));
+        }
+    }
+
+    @Test
+    public void getDaysInMonth() {
+        GregorianCalendar calendar = newCalendar();
+        for (int year = MIN_YEAR; year <= MAX_YEAR; year++) {
+            for (int month = 1; month <= 12; month++) {
+                calendar.clear();
+                calendar.set(year, month - 1, 1);
+                assertEquals(year + "-" + month, calendar.getActualMaximum(Calendar.DATE),
+                        CalendarMath.getDaysInMonth(year, month));
+                assertEquals(CalendarMath.getDaysInMonth(year, month), Utils.getLastDayByYearMonth(year, month));
+            }
+        }
+    }
+
+    @Test
+    public void epochDayAndDayOfWeek() {
+        GregorianCalendar calendar = newCalendar();
+        calendar.set(MIN_YEAR, Calendar.JANUARY, 1);
+        long epochDay = calendar.getTimeInMillis() / 86400000L;
+        while (calendar.get(Calendar.YEAR) <= MAX_YEAR) {
+            int year = calendar.get(Calendar.YEAR);
+            int month = calendar.get(Calendar.MONTH) + 1;
+            int day = calendar.get(Calendar.DATE);
+            String date = year + "-" + month + "-" + day;
+
+            assertEquals(date, epochDay, CalendarMath.toEpochDay(year, month, day));
+            assertEquals(date, CalendarMath.pack(year, month, day), CalendarMath.fromEpochDay(epochDay));
+            assertEquals(date, calendar.get(Calendar.DAY_OF_WEEK), CalendarMath.getDayOfWeek(year, month, day));
+
+            calendar.add(Calendar.DATE, 1);
+            epochDay++;
+        }
+    }
+
+    @Test
+    public void packedFields() {
+        int packed = CalendarMath.pack(2026, 10, 18);
+        assertEquals(20261018, packed);
+        assertEquals(2026, CalendarMath.packedYear(packed));
+        assertEquals(10, CalendarMath.packedMonth(packed));
+        assertEquals(18, CalendarMath.packedDay(packed));
+        assertEquals(0, CalendarMath.toEpochDay(1970, 1, 1));
+        assertEquals(Calendar.THURSDAY, CalendarMath.getDayOfWeek(0));
+        assertEquals(Calendar.WEDNESDAY, CalendarMath.getDayOfWeek(-1));
+    }
+}
@@ -0,0 +1,83 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import com.tuuzed.androidx.datepicker.DatePickerType;
+
+import org.junit.Test;
+
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DateFormatsTest {
+
+    private static final int[] TYPES = {
+            DatePickerType.TYPE_YMDHM,
+            DatePickerType.TYPE_YMDH,
+            DatePickerType.TYPE_YMD,
+            DatePickerType.TYPE_YM,
+            DatePickerType.TYPE_Y,
+            DatePickerType.TYPE_HM,
+    };
+
+    @Test
+    public void newFormat_returnsIndependentCopies() throws Exception {
+        DateFormat first = DateFormats.newFormat(DatePickerType.TYPE_YMD, Locale.US);
+        DateFormat second = DateFormats.newFormat(DatePickerType.TYPE_YMD, Locale.US);
+        assertNotSame(first, second);
+
+        // 修改返回值不影响之后的调用和格式化
+        first.setTimeZone(TimeZone.getTimeZone("GMT+14"));
+        first.setLenient(false);
+        DateFormat third = DateFormats.newFormat(DatePickerType.TYPE_YMD, Locale.US);
+        assertEquals(TimeZone.getDefault(), third.getTimeZone());
+        assertTrue(third.isLenient());
+        Date date = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.US).parse("2026-10-18 23:30");
+        StringBuilder out = new StringBuilder();
+        DateFormats.format(DatePickerType.TYPE_YMD, Locale.US, date.getTime(), out);
+        assertEquals("2026-10-18", out.toString());
+    }
+
+    @Test
+    public void newFormat_keyedByLocale() {
+        // 交替使用两个 Locale 时各自保留缓存，格式化结果不串
+        Locale arabic = new Locale("ar", "EG");
+        DateFormat us = DateFormats.newFormat(DatePickerType.TYPE_YMD, Locale.US);
+        DateFormat ar = DateFormats.newFormat(DatePickerType.TYPE_YMD, arabic);
+        Date date = new Date(1792310400000L);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(us.format(date), DateFormats.newFormat(DatePickerType.TYPE_YMD, Locale.US).format(date));
+            assertEquals(ar.format(date), DateFormats.newFormat(DatePickerType.TYPE_YMD, arabic).format(date));
+            StringBuilder out = new StringBuilder();
+            DateFormats.format(DatePickerType.TYPE_YMD, Locale.US, date.getTime(), out);
+            assertEquals(us.format(date), out.toString());
+        }
+    }
+
+    @Test
+    public void format_matchesSimpleDateFormat() throws Exception {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2026, Calendar.OCTOBER, 8, 15, 5);
+        for (int type : TYPES) {
+            String expected = DateFormats.newFormat(type, Locale.US).format(calendar.getTime());
+
+            StringBuilder out = new StringBuilder();
+            DateFormats.format(type, Locale.US, calendar.getTimeInMillis(), out);
+            assertEquals(expected, out.toString());
+
+            out.setLength(0);
+            DateFormats.format(type, 2026, 10, 8, 15, 5, out);
+            assertEquals(expected, out.toString());
+        }
+    }
+
+    @Test
+    public void typeHM_uses24HourClock() {
+        assertEquals("HH:mm", DateFormats.getPattern(DatePickerType.TYPE_HM));
+    }
+}
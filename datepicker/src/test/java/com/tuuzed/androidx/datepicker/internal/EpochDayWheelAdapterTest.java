@@ -0,0 +1,51 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+public class EpochDayWheelAdapterTest {
+
+    @Test
+    public void getItem() {
+        int min = (int) CalendarMath.toEpochDay(1970, 1, 1);
+        int max = (int) CalendarMath.toEpochDay(2100, 12, 31);
+        EpochDayWheelAdapter adapter = new EpochDayWheelAdapter(min, max,
+                EpochDayWheelAdapter.DEFAULT_PATTERN, Locale.US);
+        assertEquals("Thu 1 Jan 1970", adapter.getItem(0));
+        int index = (int) CalendarMath.toEpochDay(2026, 10, 18) - min;
+        assertEquals("Sun 18 Oct 2026", adapter.getItem(index));
+        assertEquals("Fri 31 Dec 2100", adapter.getItem(max - min));
+        assertNull(adapter.getItem(-1));
+        assertNull(adapter.getItem(max - min + 1));
+    }
+
+    @Test
+    public void getItem_usesCache() {
+        int min = (int) CalendarMath.toEpochDay(2000, 1, 1);
+        int max = (int) CalendarMath.toEpochDay(2049, 12, 31);
+        EpochDayWheelAdapter adapter = new EpochDayWheelAdapter(min, max, "yyyy-MM-dd", Locale.US);
+        assertEquals(18263, adapter.getItemsCount());
+        String item = adapter.getItem(100);
+        assertSame(item, adapter.getItem(100));
+        // evict the slot, then read it back
+        assertEquals("2000-06-13", adapter.getItem(100 + 64));
+        assertEquals("2000-04-10", adapter.getItem(100));
+        assertEquals(min + 100, adapter.getEpochDay(100));
+    }
+
+    @Test
+    public void emptyRange() {
+        int day = (int) CalendarMath.toEpochDay(2026, 10, 18);
+        EpochDayWheelAdapter adapter = new EpochDayWheelAdapter(day, day - 5, "yyyy-MM-dd", Locale.US);
+        assertEquals(0, adapter.getItemsCount());
+        assertNull(adapter.getItem(0));
+
+        adapter.setRange(day, day);
+        assertEquals(1, adapter.getItemsCount());
+        adapter.setRange(day, day - 1);
+        assertEquals(0, adapter.getItemsCount());
+    }
+}
@@ -0,0 +1,23 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.content.Context;
+import android.widget.Scroller;
+
+/**
+ * Robolectric 的 Scroller.fling 不移动，这里以同样范围内的 startScroll 代替，使惯性滚动逐帧推进。
+ * 按初速度匀减速 1 秒，滚过的距离为速度的一半，超出 minY..maxY 时停在边界
+ */
+public final class FlingScroller extends Scroller {
+    private static final int FLING_DURATION = 1000;
+
+    public FlingScroller(Context context) {
+        super(context);
+    }
+
+    @Override
+    public void fling(int startX, int startY, int velocityX, int velocityY,
+                      int minX, int maxX, int minY, int maxY) {
+        long finalY = Math.max(minY, Math.min((long) startY + velocityY / 2, maxY));
+        startScroll(startX, startY, 0, (int) (finalY - startY), FLING_DURATION);
+    }
+}
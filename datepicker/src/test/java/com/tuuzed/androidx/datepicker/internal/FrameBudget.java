@@ -0,0 +1,363 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.app.Activity;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.view.View;
+import android.view.ViewGroup;
+
+import org.robolectric.Robolectric;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.shadows.ShadowChoreographer;
+import org.robolectric.shadows.ShadowLooper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 按帧统计分配量的工具，预算来自 frame-budget.properties。
+ * <p>
+ * 计量本身（JDK 8/11 的 getThreadAllocatedBytes 每次调用都会分配）和 Robolectric 推进一帧 looper 的分配量
+ * 在 {@link #start(Scene)} 时测出，从每帧的结果中扣除，剩下的才是被测代码的分配量。
+ * <p>
+ * JVM 偶尔在某一帧中分配与被测代码无关的内存（如 JIT 编译、类加载），平均时去掉分配量最大的 5% 的帧
+ */
+public final class FrameBudget {
+
+    public static final int FRAME_MILLIS = 16;
+    private static final int CALIBRATION_FRAMES = 60;
+    private static final int MAX_FRAMES = 1024;
+
+    private static Properties sBudgets;
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final long threadId;
+    // 每帧扣除的计量和 looper 的分配量
+    private long meterBytes;
+    private long looperBytes;
+    private boolean measuring;
+    private long startBytes;
+    // 当前帧中 looper 的分配量
+    private long frameLooperBytes;
+    // 每帧的分配量，预先分配，计量时不分配
+    private final long[] frameBytes = new long[MAX_FRAMES];
+    private int frames;
+
+    private FrameBudget() {
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadId = Thread.currentThread().getId();
+    }
+
+    /**
+     * 创建计量器并测出计量和 looper 的开销，当前 JVM 不支持按线程统计分配量时跳过测试
+     *
+     * @param scene 已显示的场景，looper 的开销用它的视图测量
+     */
+    public static FrameBudget start(Scene scene) {
+        FrameBudget budget = new FrameBudget();
+        assumeTrue(budget.threadMXBean.isThreadAllocatedMemorySupported());
+        budget.threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        budget.calibrate(scene.view);
+        return budget;
+    }
+
+    /**
+     * 每帧的动画回调延迟一帧执行，使 {@link #nextFrame()} 每次只推进一帧
+     */
+    public static void setUpFrames() {
+        ShadowChoreographer.setPostCallbackDelay(FRAME_MILLIS);
+        ShadowChoreographer.setPostFrameCallbackDelay(FRAME_MILLIS);
+    }
+
+    /**
+     * 推进一帧，执行到期的动画回调。不在计量区间内使用，区间内使用 {@link #advanceFrame()}
+     */
+    public static void nextFrame() {
+        ShadowLooper.idleMainLooper(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    public static int getInt(String key) {
+        if (sBudgets == null) {
+            Properties budgets = new Properties();
+            InputStream in = FrameBudget.class.getClassLoader().getResourceAsStream("frame-budget.properties");
+            try {
+                budgets.load(in);
+                in.close();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            sBudgets = budgets;
+        }
+        return Integer.parseInt(sBudgets.getProperty(key));
+    }
+
+    /**
+     * 测出空的计量区间和推进一帧 looper 的分配量。looper 的开销用一个与滚轮的动画帧一样
+     * 每帧重新 postOnAnimation 的空回调测量，因此包括 Robolectric 调度器为每个回调做的分配
+     */
+    private void calibrate(View host) {
+        for (int pass = 0; pass < 2; pass++) {
+            reset();
+            for (int i = 0; i < CALIBRATION_FRAMES; i++) {
+                begin();
+                end();
+            }
+        }
+        meterBytes = getBytesPerFrame();
+
+        EmptyAnimation animation = new EmptyAnimation(host);
+        host.postOnAnimation(animation);
+        for (int pass = 0; pass < 2; pass++) {
+            reset();
+            for (int i = 0; i < CALIBRATION_FRAMES; i++) {
+                begin();
+                nextFrame();
+                end();
+            }
+        }
+        looperBytes = Math.max(0, getBytesPerFrame());
+        animation.stopped = true;
+        nextFrame();
+        reset();
+    }
+
+    public void reset() {
+        frames = 0;
+    }
+
+    /**
+     * 开始计量一帧
+     */
+    public void begin() {
+        measuring = true;
+        frameLooperBytes = 0;
+        startBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * 结束计量一帧
+     */
+    public void end() {
+        long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - startBytes - meterBytes - frameLooperBytes;
+        measuring = false;
+        if (frames < MAX_FRAMES) {
+            frameBytes[frames] = bytes;
+        }
+        frames++;
+    }
+
+    /**
+     * 在计量区间内推进一帧，扣除 looper 本身的分配量
+     */
+    public void advanceFrame() {
+        nextFrame();
+        if (measuring) {
+            frameLooperBytes += looperBytes;
+        }
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * 去掉分配量最大的 5%（至少一帧，只有一帧时不去掉）后每帧的平均分配量
+     */
+    private long getBytesPerFrame() {
+        int count = Math.min(frames, MAX_FRAMES);
+        long[] sorted = Arrays.copyOf(frameBytes, count);
+        Arrays.sort(sorted);
+        int kept = count > 1 ? count - Math.max(1, count / 20) : count;
+        long bytes = 0;
+        for (int i = 0; i < kept; i++) {
+            bytes += sorted[i];
+        }
+        return bytes / kept;
+    }
+
+    /**
+     * 断言每帧的平均分配量不超过预算
+     */
+    public void assertWithin(String key) {
+        assertTrue("no frames measured for " + key, frames > 0);
+        int budget = getInt(key);
+        long perFrame = Math.max(0, getBytesPerFrame());
+        assertTrue(key + ": " + perFrame + " bytes per frame over " + frames
+                + " frames, budget " + budget, perFrame <= budget);
+    }
+
+    /**
+     * 每帧重新安排自己的空动画回调
+     */
+    private static class EmptyAnimation implements Runnable {
+        private final View host;
+        boolean stopped;
+
+        EmptyAnimation(View host) {
+            this.host = host;
+        }
+
+        @Override
+        public void run() {
+            if (!stopped) {
+                host.postOnAnimation(this);
+            }
+        }
+    }
+
+    /**
+     * 显示在 Activity 中、测量并布局为固定大小的视图，逐帧绘制。
+     * <p>
+     * Robolectric 的 View.draw 只画背景，因此 {@link #drawFrame()} 直接调用 onDraw：
+     * 滚轮或单个视图画它自己，ViewGroup 只画其中的滚轮，标签不随滚动重绘
+     */
+    public static final class Scene {
+        private final ActivityController<Activity> controller;
+        private final List<View> drawnViews = new ArrayList<>();
+        private final Method onDraw;
+        private final Object[] drawArgs;
+        public final FrameCanvas canvas = new FrameCanvas();
+        private View view;
+        private int width;
+        private int height;
+
+        private Scene() {
+            setUpFrames();
+            controller = Robolectric.buildActivity(Activity.class).create();
+            try {
+                onDraw = View.class.getDeclaredMethod("onDraw", Canvas.class);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+            onDraw.setAccessible(true);
+            drawArgs = new Object[]{canvas};
+        }
+
+        public static Scene create() {
+            return new Scene();
+        }
+
+        public Activity getActivity() {
+            return controller.get();
+        }
+
+        /**
+         * 显示视图，测量、布局并画出第一帧
+         *
+         * @param width  宽度
+         * @param height 高度，0 表示不限制
+         */
+        public void show(View view, int width, int height) {
+            this.view = view;
+            this.width = width;
+            this.height = height;
+            controller.get().setContentView(view);
+            controller.start().resume().visible();
+            relayout();
+        }
+
+        /**
+         * 重新测量、布局并画出一帧，用于改变了类型等之后
+         */
+        public void relayout() {
+            view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                    height > 0 ? View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY)
+                            : View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            drawnViews.clear();
+            if (view instanceof ViewGroup) {
+                drawnViews.addAll(Wheels.findWheels(view));
+            } else {
+                drawnViews.add(view);
+            }
+            drawFrame();
+        }
+
+        /**
+         * 画一帧，不分配
+         */
+        public void drawFrame() {
+            try {
+                for (int i = 0; i < drawnViews.size(); i++) {
+                    onDraw.invoke(drawnViews.get(i), drawArgs);
+                }
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * 逐帧推进动画并绘制，直到滚轮停止
+         *
+         * @param budget 计量每帧的分配量
+         */
+        public void runFrames(FrameBudget budget) {
+            for (int i = 0; i < 600 && isScrolling(); i++) {
+                budget.begin();
+                budget.advanceFrame();
+                drawFrame();
+                budget.end();
+            }
+        }
+
+        private boolean isScrolling() {
+            for (int i = 0; i < drawnViews.size(); i++) {
+                View drawn = drawnViews.get(i);
+                if (drawn instanceof WheelView && ((WheelView) drawn).isScrolling()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 不实际绘制的 Canvas，只统计绘制的行数。texts 不为null时记录绘制的文本，计量时不记录
+     */
+    public static class FrameCanvas extends Canvas {
+        public int textCount;
+        public List<String> texts;
+
+        @Override
+        public int save() {
+            return 1;
+        }
+
+        @Override
+        public void restore() {
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+            textCount++;
+            if (texts != null) {
+                texts.add(text);
+            }
+        }
+
+        @Override
+        public void drawText(char[] text, int index, int count, float x, float y, Paint paint) {
+            textCount++;
+            if (texts != null) {
+                texts.add(new String(text, index, count));
+            }
+        }
+    }
+}
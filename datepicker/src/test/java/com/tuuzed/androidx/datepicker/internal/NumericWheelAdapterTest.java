@@ -0,0 +1,111 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NumericWheelAdapterTest {
+
+    @Test
+    public void getItem_returnsSameInstance() {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(0, 59, "%02d");
+        assertEquals("07", adapter.getItem(7));
+        assertSame(adapter.getItem(7), adapter.getItem(7));
+        assertNull(adapter.getItem(-1));
+        assertNull(adapter.getItem(60));
+    }
+
+    @Test
+    public void getItem_wideRangeUsesCache() {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(-1000000, 1000000);
+        assertEquals("-1000000", adapter.getItem(0));
+        assertEquals("1000000", adapter.getItem(2000000));
+        String item = adapter.getItem(1000000);
+        assertEquals("0", item);
+        assertSame(item, adapter.getItem(1000000));
+        // evict the slot, then read it back
+        adapter.getItem(1000000 + 64);
+        assertEquals("0", adapter.getItem(1000000));
+    }
+
+    @Test
+    public void getMaximumLength() {
+        assertEquals(4, new NumericWheelAdapter(1970, 2100).getMaximumLength());
+        assertEquals(3, new NumericWheelAdapter(-10, 10).getMaximumLength());
+    }
+
+    @Test
+    public void setRange_keepsLabels() {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(1, 31);
+        String item = adapter.getItem(27);
+        adapter.setRange(1, 28);
+        assertEquals(28, adapter.getItemsCount());
+        assertSame(item, adapter.getItem(27));
+        assertNull(adapter.getItem(28));
+        adapter.setRange(1, 31);
+        assertEquals("31", adapter.getItem(30));
+        adapter.setRange(0, 30);
+        assertEquals("27", adapter.getItem(27));
+    }
+
+    @Test
+    public void getMinimumWidth() {
+        assertEquals(0, new NumericWheelAdapter(0, 59).getMinimumWidth());
+        assertEquals(2, new NumericWheelAdapter(0, 59, "%02d").getMinimumWidth());
+        assertEquals(-1, new NumericWheelAdapter(0, 59, "%d min").getMinimumWidth());
+    }
+
+    @Test
+    public void formatInt_matchesStringFormat() {
+        char[] buffer = new char[Utils.MAX_INT_CHARS];
+        int[] values = {0, 7, -7, 59, -123, Integer.MIN_VALUE, Integer.MAX_VALUE};
+        for (int value : values) {
+            assertEquals(Integer.toString(value), new String(buffer, 0, Utils.formatInt(value, 0, buffer)));
+            assertEquals(String.format("%02d", value), new String(buffer, 0, Utils.formatInt(value, 2, buffer)));
+            assertEquals(String.format("%04d", value), new String(buffer, 0, Utils.formatInt(value, 4, buffer)));
+        }
+    }
+
+    @Test
+    public void formatInt_atOffset() {
+        char[] buffer = new char[Utils.MAX_INT_CHARS * 2];
+        int length = Utils.formatInt(-7, 4, buffer, Utils.MAX_INT_CHARS);
+        assertEquals("-007", new String(buffer, Utils.MAX_INT_CHARS, length));
+        length = Utils.formatInt(Integer.MIN_VALUE, 0, buffer, Utils.MAX_INT_CHARS);
+        assertEquals(Integer.toString(Integer.MIN_VALUE), new String(buffer, Utils.MAX_INT_CHARS, length));
+    }
+
+    @Test
+    public void step() {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(0, 59, 15, "%02d");
+        assertEquals(4, adapter.getItemsCount());
+        assertEquals("45", adapter.getItem(3));
+        assertEquals(30, adapter.getValue(2));
+        assertEquals(2, adapter.indexOf(30));
+        assertEquals(2, adapter.indexOf(44));
+        assertEquals(-1, adapter.indexOf(60));
+
+        adapter.setRange(0, 59, 5);
+        assertEquals(12, adapter.getItemsCount());
+        assertEquals("15", adapter.getItem(3));
+
+        // offset ranges such as business hours
+        adapter.setRange(9, 17, 1);
+        assertEquals(9, adapter.getItemsCount());
+        assertEquals("09", adapter.getItem(0));
+        assertEquals(8, adapter.indexOf(17));
+    }
+
+    @Test
+    public void setRange_shiftsLabels() {
+        NumericWheelAdapter adapter = new NumericWheelAdapter(1, 31);
+        String item = adapter.getItem(9);
+        adapter.setRange(5, 31);
+        assertEquals(27, adapter.getItemsCount());
+        assertSame(item, adapter.getItem(5));
+        assertEquals("5", adapter.getItem(0));
+        adapter.setRange(1, 31);
+        assertSame(item, adapter.getItem(9));
+        assertEquals("1", adapter.getItem(0));
+    }
+}
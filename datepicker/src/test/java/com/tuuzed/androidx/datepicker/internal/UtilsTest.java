@@ -0,0 +1,38 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UtilsTest {
+
+    @Test
+    public void getItemIndex() {
+        assertEquals(3, Utils.getItemIndex(3, 10, false));
+        assertEquals(-1, Utils.getItemIndex(-1, 10, false));
+        assertEquals(-1, Utils.getItemIndex(10, 10, false));
+        assertEquals(-1, Utils.getItemIndex(0, 0, true));
+        assertEquals(9, Utils.getItemIndex(-1, 10, true));
+        assertEquals(0, Utils.getItemIndex(10, 10, true));
+        assertEquals(0, Utils.getItemIndex(-10, 10, true));
+        // 常数时间，不随距离增长
+        assertEquals(5, Utils.getItemIndex(Integer.MIN_VALUE, 7, true));
+        assertEquals(1, Utils.getItemIndex(Integer.MAX_VALUE, 7, true));
+    }
+
+    @Test
+    public void clampToInt() {
+        assertEquals(5, Utils.clampToInt(5L));
+        assertEquals(Integer.MAX_VALUE, Utils.clampToInt(50000000L * 120));
+        assertEquals(Integer.MIN_VALUE, Utils.clampToInt(-50000000L * 120));
+    }
+
+    @Test
+    public void floorDiv() {
+        assertEquals(2, Utils.floorDiv(37, 15));
+        assertEquals(0, Utils.floorDiv(0, 15));
+        assertEquals(-1, Utils.floorDiv(-1, 15));
+        assertEquals(-1, Utils.floorDiv(-15, 15));
+        assertEquals(-2, Utils.floorDiv(-16, 15));
+    }
+}
@@ -0,0 +1,27 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WheelScrollerTest {
+
+    private static final int ITEM_HEIGHT = 100;
+
+    @Test
+    public void flingBounds_smallAdapter() {
+        // 在第 3 项，向下拖动了 30px
+        assertEquals(-270, WheelScroller.getFlingMinY(3, 30, ITEM_HEIGHT));
+        assertEquals(730, WheelScroller.getFlingMaxY(10, 3, 30, ITEM_HEIGHT));
+    }
+
+    @Test
+    public void flingBounds_hugeAdapterDoNotOverflow() {
+        int count = 50000000;
+        // position * itemHeight 超出 int，以 int 计算时会回绕成相反的符号
+        assertEquals(Integer.MIN_VALUE, WheelScroller.getFlingMinY(count - 5, 0, ITEM_HEIGHT));
+        assertEquals(530, WheelScroller.getFlingMaxY(count, count - 5, 30, ITEM_HEIGHT));
+        assertEquals(-30, WheelScroller.getFlingMinY(0, -30, ITEM_HEIGHT));
+        assertEquals(Integer.MAX_VALUE, WheelScroller.getFlingMaxY(count, 0, 0, ITEM_HEIGHT));
+    }
+}
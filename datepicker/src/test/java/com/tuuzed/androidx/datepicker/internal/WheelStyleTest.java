@@ -0,0 +1,73 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.app.Activity;
+import android.graphics.Paint;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WheelStyleTest {
+
+    @Test
+    public void equalStylesSharePaints() {
+        WheelStyle a = new WheelStyle(30, 0x50000000, 0xFF000000, 3);
+        WheelStyle b = new WheelStyle(30, 0x50000000, 0xFF000000, 5);
+        assertSame(a.getItemsPaint(), b.getItemsPaint());
+        assertSame(a.getValuePaint(), b.getValuePaint());
+        assertNotSame(a.getItemsPaint(), a.getValuePaint());
+
+        WheelStyle c = a.withColors(0x50FF0000, 0xFFFF0000);
+        assertNotSame(a.getItemsPaint(), c.getItemsPaint());
+        assertEquals(0x50FF0000, c.getItemsPaint().getColor());
+        assertEquals(0xFFFF0000, c.getValuePaint().getColor());
+        assertEquals(30f, c.getValuePaint().getTextSize(), 0f);
+    }
+
+    @Test
+    public void paintsAreKeyedByRole() {
+        // 颜色相同时 item 和当前值仍是不同的画笔
+        WheelStyle style = new WheelStyle(31, 0xFF000000, 0xFF000000, 3);
+        assertNotSame(style.getItemsPaint(), style.getValuePaint());
+        assertEquals(0, style.getItemsPaint().getFlags() & Paint.DITHER_FLAG);
+        assertNotEquals(0, style.getValuePaint().getFlags() & Paint.DITHER_FLAG);
+    }
+
+    @Test
+    public void drawingLeavesSharedPaintsUntouched() {
+        FrameBudget.Scene scene = FrameBudget.Scene.create();
+        WheelStyle style = new WheelStyle(32, 0x50000000, 0xFF000000, 3);
+        WheelView pressed = new WheelView(scene.getActivity(), style);
+        pressed.setAdapter(new NumericWheelAdapter(0, 9));
+        scene.show(pressed, 240, 480);
+        pressed.setPressed(true);
+        scene.drawFrame();
+
+        assertNull(style.getItemsPaint().drawableState);
+        assertNull(style.getValuePaint().drawableState);
+    }
+
+    @Test
+    public void wheelRestylesBySwapping() {
+        Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+        WheelStyle style = new WheelStyle(30, 0x50000000, 0xFF000000, 3);
+        WheelView first = new WheelView(activity, style);
+        WheelView second = new WheelView(activity, style);
+        assertSame(first.getStyle(), second.getStyle());
+
+        first.setTextSize(40);
+        assertEquals(40, first.getStyle().getTextSize());
+        assertEquals(40f, first.getStyle().getItemsPaint().getTextSize(), 0f);
+        assertEquals(30f, second.getStyle().getItemsPaint().getTextSize(), 0f);
+
+        first.setColor(0x50FF0000);
+        assertEquals(0x50FF0000, first.getStyle().getItemsPaint().getColor());
+        assertEquals(0xFF000000, first.getStyle().getValuePaint().getColor());
+    }
+}
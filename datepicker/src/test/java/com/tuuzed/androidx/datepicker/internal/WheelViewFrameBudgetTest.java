@@ -0,0 +1,274 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 28)
+public class WheelViewFrameBudgetTest {
+
+    private static final int WIDTH = 240;
+    private static final int HEIGHT = 480;
+
+    private FrameBudget.Scene scene;
+    private WheelView wheel;
+    private CountingAdapter adapter;
+    private int steps;
+
+    @Before
+    public void setUp() {
+        scene = FrameBudget.Scene.create();
+        wheel = new WheelView(scene.getActivity());
+        wheel.setScroller(new FlingScroller(scene.getActivity()));
+        adapter = new CountingAdapter(1000);
+        wheel.setAdapter(adapter);
+        wheel.setCyclic(true);
+        wheel.addChangingListener(new WheelView.OnWheelChangedListener() {
+            @Override
+            public void onChanged(WheelView wheel, int oldValue, int newValue) {
+                steps++;
+            }
+        });
+        scene.show(wheel, WIDTH, HEIGHT);
+    }
+
+    @Test
+    public void idleFrames() {
+        FrameBudget budget = FrameBudget.start(scene);
+        for (int pass = 0; pass < 2; pass++) {
+            budget.reset();
+            adapter.fetches = 0;
+            for (int i = 0; i < 60; i++) {
+                budget.begin();
+                scene.drawFrame();
+                budget.end();
+            }
+        }
+        budget.assertWithin("wheel.draw.bytesPerFrame");
+        assertEquals(FrameBudget.getInt("wheel.rowFetchesPerIdleFrame") * 60, adapter.fetches);
+        assertTrue(scene.canvas.textCount > 0);
+    }
+
+    @Test
+    public void numericRowsKeepTheirDigits() {
+        NumericWheelAdapter numeric = new NumericWheelAdapter(0, 59, "%02d");
+        wheel.setAdapter(numeric);
+        wheel.setCyclic(false);
+        scene.relayout();
+        scene.canvas.texts = new ArrayList<>();
+        // 前进、后退和跳过多行，覆盖行缓存的平移和整体刷新
+        int[] positions = {0, 1, 2, 5, 4, 3, 30, 58, 59, 57};
+        for (int position : positions) {
+            wheel.setPosition(position);
+            scene.canvas.texts.clear();
+            scene.drawFrame();
+            List<String> texts = scene.canvas.texts;
+            assertTrue(texts.contains(numeric.getItem(position)));
+            int first = Integer.parseInt(texts.get(0));
+            for (int i = 0; i < texts.size(); i++) {
+                assertEquals(numeric.getItem(first + i), texts.get(i));
+            }
+        }
+        scene.canvas.texts = null;
+    }
+
+    @Test
+    public void setPositionFrames() {
+        FrameBudget budget = FrameBudget.start(scene);
+        for (int pass = 0; pass < 2; pass++) {
+            budget.reset();
+            adapter.fetches = 0;
+            steps = 0;
+            for (int i = 0; i < 60; i++) {
+                budget.begin();
+                wheel.setPosition(wheel.getPosition() + 1);
+                scene.drawFrame();
+                budget.end();
+            }
+        }
+        budget.assertWithin("wheel.setPosition.bytesPerFrame");
+        assertRowFetches();
+    }
+
+    @Test
+    public void scrollFrames() {
+        FrameBudget budget = FrameBudget.start(scene);
+        for (int pass = 0; pass < 2; pass++) {
+            budget.reset();
+            adapter.fetches = 0;
+            steps = 0;
+            budget.begin();
+            wheel.scroll(pass == 0 ? 40 : -40, 1000);
+            scene.drawFrame();
+            budget.end();
+            scene.runFrames(budget);
+        }
+        budget.assertWithin("wheel.scroll.bytesPerFrame");
+        assertRowFetches();
+        assertFalse(wheel.isScrolling());
+    }
+
+    @Test
+    public void dragAndFlingFrames() {
+        FrameBudget budget = FrameBudget.start(scene);
+        for (int pass = 0; pass < 2; pass++) {
+            long downTime = SystemClock.uptimeMillis();
+            float y = HEIGHT / 2f;
+            MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, WIDTH / 2f, y, 0);
+            wheel.onTouchEvent(down);
+            down.recycle();
+
+            budget.reset();
+            adapter.fetches = 0;
+            steps = 0;
+            for (int i = 0; i < 10; i++) {
+                FrameBudget.nextFrame();
+                y -= 40;
+                MotionEvent move = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                        MotionEvent.ACTION_MOVE, WIDTH / 2f, y, 0);
+                budget.begin();
+                wheel.onTouchEvent(move);
+                scene.drawFrame();
+                budget.end();
+                move.recycle();
+            }
+            MotionEvent up = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                    MotionEvent.ACTION_UP, WIDTH / 2f, y - 40, 0);
+            wheel.onTouchEvent(up);
+            up.recycle();
+            int dragged = steps;
+            scene.runFrames(budget);
+            // 对齐最多移动一项，更多的是惯性滚动
+            assertTrue("the fling did not move", steps - dragged > 1);
+        }
+        budget.assertWithin("wheel.fling.bytesPerFrame");
+        assertRowFetches();
+        assertFalse(wheel.isScrolling());
+    }
+
+    @Test
+    public void hugeAdapterFling() {
+        int count = 50000000;
+        wheel.setAdapter(new NumericWheelAdapter(0, count - 1));
+        wheel.setCyclic(true);
+        wheel.setPosition(-1);
+        assertEquals(count - 1, wheel.getPosition());
+
+        wheel.setCyclic(false);
+        wheel.setPosition(count - 10);
+        FrameBudget budget = FrameBudget.start(scene);
+        dragAndFling();
+        assertTrue(wheel.getPosition() < count - 1);
+        scene.runFrames(budget);
+        assertFalse(wheel.isScrolling());
+        // 惯性滚动越过末尾，停在最后一个item上，不因溢出跳回开头
+        assertEquals(count - 1, wheel.getPosition());
+    }
+
+    @Test
+    public void metrics() {
+        final int[] flings = new int[2];
+        WheelMetrics metrics = new WheelMetrics() {
+            @Override
+            protected void onFlingFinished(int frames, long durationMillis, int items) {
+                flings[0]++;
+                flings[1] += items;
+            }
+        };
+        wheel.setMetrics(metrics);
+        wheel.setAdapter(new NumericWheelAdapter(0, 999));
+        assertEquals(1, metrics.getAdapterSwaps());
+
+        FrameBudget budget = FrameBudget.start(scene);
+        dragAndFling();
+        scene.runFrames(budget);
+        assertFalse(wheel.isScrolling());
+        assertEquals(1, flings[0]);
+        assertEquals(1, metrics.getFlingCount());
+        assertTrue(metrics.getFlingFrames() > 0);
+        assertTrue(flings[1] > 1);
+        assertEquals(flings[1], metrics.getFlingItems());
+        assertTrue(metrics.getRowRebuilds() > 0);
+        assertTrue(metrics.getListenerDispatches() > 0);
+
+        metrics.reset();
+        assertEquals(0, metrics.getFlingCount());
+        assertEquals(0, metrics.getRowRebuilds());
+        // 停止计数后不再累加
+        wheel.setMetrics(null);
+        wheel.setPosition(0);
+        assertEquals(0, metrics.getListenerDispatches());
+    }
+
+    /**
+     * 向上拖动 5 帧后松手，留下惯性滚动
+     */
+    private void dragAndFling() {
+        long downTime = SystemClock.uptimeMillis();
+        float y = HEIGHT - 10;
+        MotionEvent down = MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, WIDTH / 2f, y, 0);
+        wheel.onTouchEvent(down);
+        down.recycle();
+        steps = 0;
+        for (int i = 0; i < 5; i++) {
+            FrameBudget.nextFrame();
+            y -= 80;
+            MotionEvent move = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                    MotionEvent.ACTION_MOVE, WIDTH / 2f, y, 0);
+            wheel.onTouchEvent(move);
+            move.recycle();
+        }
+        MotionEvent up = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(),
+                MotionEvent.ACTION_UP, WIDTH / 2f, y - 80, 0);
+        wheel.onTouchEvent(up);
+        up.recycle();
+    }
+
+    private void assertRowFetches() {
+        assertTrue("the wheel did not move", steps > 0);
+        int budget = FrameBudget.getInt("wheel.rowFetchesPerStep") * steps;
+        assertTrue(adapter.fetches + " rows fetched for " + steps + " steps", adapter.fetches <= budget);
+    }
+
+    /**
+     * 统计读取次数的适配器，文本预先创建，本身不分配
+     */
+    private static class CountingAdapter implements WheelView.WheelAdapter {
+        private final String[] items;
+        int fetches;
+
+        CountingAdapter(int count) {
+            items = new String[count];
+            for (int i = 0; i < count; i++) {
+                items[i] = Integer.toString(i);
+            }
+        }
+
+        @Override
+        public int getItemsCount() {
+            return items.length;
+        }
+
+        @Override
+        public String getItem(int index) {
+            fetches++;
+            return items[index];
+        }
+
+        @Override
+        public int getMaximumLength() {
+            return 3;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.tuuzed.androidx.datepicker.internal;
+
+import android.view.View;
+import android.view.ViewGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 测试中查找选择器里的滚轮
+ */
+public final class Wheels {
+
+    private Wheels() {
+    }
+
+    /**
+     * 按布局顺序找出视图中的全部滚轮
+     */
+    public static List<WheelView> findWheels(View view) {
+        List<WheelView> wheels = new ArrayList<>();
+        findWheels(view, wheels);
+        return wheels;
+    }
+
+    private static void findWheels(View view, List<WheelView> out) {
+        if (view instanceof WheelView) {
+            out.add((WheelView) view);
+        } else if (view instanceof ViewGroup) {
+            ViewGroup group = (ViewGroup) view;
+            for (int i = 0; i < group.getChildCount(); i++) {
+                findWheels(group.getChildAt(i), out);
+            }
+        }
+    }
+}